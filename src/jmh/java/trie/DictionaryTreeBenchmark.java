@@ -0,0 +1,137 @@
+package trie;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the {@link DictionaryTree} operations on single words and of the whole tree, on a
+ * tree loaded from word-popularity.txt. Words are taken in a shuffled order so they aren't next to
+ * each other in the tree.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DictionaryTreeBenchmark {
+
+  // Amount of words the remove benchmark removes from every freshly loaded tree
+  private static final int REMOVALS = 50000;
+
+  private DictionaryTree tree;
+  private String[] words;
+  private int[] popularities;
+  private int next;
+
+  @Setup
+  public void setUp() throws IOException {
+    tree = CLI.loadWords(Workloads.wordFile());
+    List<String> fileWords = Workloads.words();
+    Collections.shuffle(fileWords, new Random(19));
+    words = fileWords.toArray(new String[0]);
+    popularities = new int[words.length];
+    for (int i = 0; i < words.length; i++) {
+      popularities[i] = tree.popularity(words[i]);
+    }
+  }
+
+  /**
+   * Inserts a stored word with a different popularity, so the most popular words above it change.
+   */
+  @Benchmark
+  public int insert() {
+    int i = nextWord();
+    popularities[i] += (popularities[i] & 1) == 0 ? 1 : -1;
+    tree.insert(words[i], popularities[i]);
+    return popularities[i];
+  }
+
+  @Benchmark
+  public boolean contains() {
+    return tree.contains(words[nextWord()]);
+  }
+
+  /**
+   * Removes REMOVALS words, in shuffled order, from a tree loaded again before every iteration. The
+   * score is the time taken by all of them, so it has to be divided by REMOVALS to give the time of
+   * a single remove.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 5, batchSize = REMOVALS)
+  @Measurement(iterations = 10, batchSize = REMOVALS)
+  public boolean remove(Removals removals) {
+    return removals.tree.remove(removals.words[removals.next++]);
+  }
+
+  /**
+   * Removes a word and inserts it again, so the tree stays the same between calls.
+   */
+  @Benchmark
+  public boolean removeAndInsert() {
+    int i = nextWord();
+    boolean removed = tree.remove(words[i]);
+    tree.insert(words[i], popularities[i]);
+    return removed;
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public List<String> allWords() {
+    return tree.allWords();
+  }
+
+  @Benchmark
+  public int size() {
+    return tree.size();
+  }
+
+  @Benchmark
+  public int height() {
+    return tree.height();
+  }
+
+  /**
+   * The tree and shuffled words of the remove benchmark, which are loaded again before every
+   * iteration as it takes the words out of the tree.
+   */
+  @State(Scope.Thread)
+  public static class Removals {
+    private DictionaryTree tree;
+    private String[] words;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+      tree = CLI.loadWords(Workloads.wordFile());
+      List<String> fileWords = Workloads.words();
+      Collections.shuffle(fileWords, new Random(19));
+      words = fileWords.toArray(new String[0]);
+      next = 0;
+    }
+  }
+
+  private int nextWord() {
+    next++;
+    if (next == words.length) {
+      next = 0;
+    }
+    return next;
+  }
+}
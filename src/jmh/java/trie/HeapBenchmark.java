@@ -0,0 +1,93 @@
+package trie;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares how much a dictionary costs the garbage collector when it's kept on the heap in a
+ * {@link DictionaryTree} and off the heap in an {@link OffHeapDictionaryTree}. The words are
+ * repeated with a different ending for every copy, so copies = 10 makes a dictionary 10 times the
+ * size of the word file. fullGc measures a full collection with nothing else on the heap, which
+ * has to mark every object of the dictionary, and the heap used afterwards is printed when the
+ * trial ends.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class HeapBenchmark {
+
+  @Param({"onHeap", "offHeap"})
+  public String store;
+
+  @Param({"1", "10"})
+  public int copies;
+
+  private DictionaryTree onHeap;
+  private OffHeapDictionaryTree offHeap;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    List<String> words = Workloads.words();
+    if (store.equals("onHeap")) {
+      onHeap = new DictionaryTree();
+    } else {
+      offHeap = new OffHeapDictionaryTree();
+    }
+    int popularity = -1;
+    for (int copy = 0; copy < copies; copy++) {
+      String ending = copy == 0 ? "" : "#" + copy;
+      for (String word : words) {
+        if (onHeap != null) {
+          onHeap.insert(word + ending, popularity);
+        } else {
+          offHeap.insert(word + ending, popularity);
+        }
+        popularity--;
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    System.gc();
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    long nodes = onHeap != null ? onHeap.size() : offHeap.size();
+    long offHeapBytes = offHeap != null ? offHeap.offHeapBytes() : 0;
+    System.out.printf("%n%s, %d nodes: %.1f MB heap used, %.1f MB off-heap%n", store, nodes,
+        memory.getHeapMemoryUsage().getUsed() / 1e6, offHeapBytes / 1e6);
+    if (offHeap != null) {
+      offHeap.close();
+    }
+    onHeap = null;
+  }
+
+  @Benchmark
+  public void fullGc() {
+    System.gc();
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public List<String> predict() {
+    return onHeap != null ? onHeap.predict("co", 10) : offHeap.predict("co", 10);
+  }
+}
@@ -0,0 +1,62 @@
+package trie;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of loading word-popularity.txt into a {@link DictionaryTree} with
+ * {@link CLI#loadWords(java.io.File)}, and with {@link CLI#loadWordsParallel} on pools of
+ * different sizes to see how it scales with cores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoadWordsBenchmark {
+
+  @Benchmark
+  public DictionaryTree loadWords() throws IOException {
+    return CLI.loadWords(Workloads.wordFile());
+  }
+
+  @Benchmark
+  public DictionaryTree loadWordsParallel(Pool pool) throws IOException {
+    return CLI.loadWordsParallel(Workloads.wordFile(), pool.pool);
+  }
+
+  /**
+   * The pool loadWordsParallel builds on, with the given amount of threads.
+   */
+  @State(Scope.Benchmark)
+  public static class Pool {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+      pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package trie;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link DictionaryTree#predict(String)} and {@link DictionaryTree#predict(String,
+ * int)} for each prefix workload of {@link Workloads}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PredictBenchmark {
+
+  @Param({"uniform", "zipf", "short", "miss"})
+  public String workload;
+
+  private DictionaryTree tree;
+  private String[] prefixes;
+  private int next;
+
+  /**
+   * The amount of words predicted - up to 10 come straight from the lists kept at every node, more
+   * need the best-first search.
+   */
+  @State(Scope.Thread)
+  public static class Amount {
+    @Param({"5", "50"})
+    public int n;
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    tree = CLI.loadWords(Workloads.wordFile());
+    prefixes = Workloads.prefixes(workload, Workloads.words(), tree);
+  }
+
+  @Benchmark
+  public Optional<String> predict() {
+    return tree.predict(nextPrefix());
+  }
+
+  @Benchmark
+  public List<String> predictN(Amount amount) {
+    return tree.predict(nextPrefix(), amount.n);
+  }
+
+  private String nextPrefix() {
+    next = (next + 1) & (Workloads.PREFIXES - 1);
+    return prefixes[next];
+  }
+}
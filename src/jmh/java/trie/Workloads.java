@@ -0,0 +1,99 @@
+package trie;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Words and prefixes for the benchmarks, made from word-popularity.txt (or the file given with the
+ * "words" system property). The prefixes are always made with the same seed so every run gets the
+ * same ones.
+ */
+final class Workloads {
+
+  // Number of prefixes in a workload - the benchmarks go through them in a loop
+  static final int PREFIXES = 1 << 16;
+
+  private Workloads() {}
+
+  static File wordFile() {
+    return new File(System.getProperty("words", "word-popularity.txt"));
+  }
+
+  // The words of the file, most popular (first line) first, without repeats or empty lines
+  static List<String> words() throws IOException {
+    List<String> words = new ArrayList<String>();
+    DictionaryTree seen = new DictionaryTree();
+    for (String line : Files.readAllLines(wordFile().toPath(), StandardCharsets.UTF_8)) {
+      if (line.length() > 0 && !seen.contains(line)) {
+        seen.insert(line);
+        words.add(line);
+      }
+    }
+    return words;
+  }
+
+  /**
+   * Makes the prefixes of a workload:
+   * <ul>
+   * <li>uniform - a prefix of any length of a word picked at random</li>
+   * <li>zipf - a prefix of up to 3 characters of a word picked with a Zipf distribution over the
+   * popularity ranking, so a few popular words make up most of the prefixes like in real typing</li>
+   * <li>short - the first 1 to 4 characters of a word picked at random</li>
+   * <li>miss - prefixes which aren't the start of any word</li>
+   * </ul>
+   */
+  static String[] prefixes(String workload, List<String> words, DictionaryTree tree) {
+    Random random = new Random(19);
+    String[] prefixes = new String[PREFIXES];
+    double[] zipf = "zipf".equals(workload) ? zipfCumulative(words.size()) : null;
+
+    for (int i = 0; i < prefixes.length; i++) {
+      String word = words.get(random.nextInt(words.size()));
+      switch (workload) {
+        case "uniform":
+          prefixes[i] = word.substring(0, 1 + random.nextInt(word.length()));
+          break;
+        case "zipf":
+          int rank = Arrays.binarySearch(zipf, random.nextDouble());
+          word = words.get(rank >= 0 ? rank : Math.min(-rank - 1, words.size() - 1));
+          prefixes[i] = word.substring(0, 1 + random.nextInt(Math.min(3, word.length())));
+          break;
+        case "short":
+          prefixes[i] = word.substring(0, 1 + random.nextInt(Math.min(4, word.length())));
+          break;
+        case "miss":
+          // Swap the last character of a prefix for two random ones until no word starts with it
+          String prefix = word.substring(0, 1 + random.nextInt(word.length()));
+          do {
+            prefix = prefix.substring(0, prefix.length() - 1) + (char) ('a' + random.nextInt(26))
+                + (char) ('a' + random.nextInt(26));
+          } while (tree.predict(prefix).isPresent());
+          prefixes[i] = prefix;
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown workload: " + workload);
+      }
+    }
+    return prefixes;
+  }
+
+  // Cumulative probabilities of picking each rank, with rank k picked in proportion to 1 / (k + 1)
+  private static double[] zipfCumulative(int ranks) {
+    double[] cumulative = new double[ranks];
+    double total = 0;
+    for (int k = 0; k < ranks; k++) {
+      total += 1.0 / (k + 1);
+      cumulative[k] = total;
+    }
+    for (int k = 0; k < ranks; k++) {
+      cumulative[k] /= total;
+    }
+    return cumulative;
+  }
+}
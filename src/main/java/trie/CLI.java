@@ -0,0 +1,377 @@
+package trie;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+
+/**
+ * @author Kelsey McKenna
+ */
+public class CLI {
+
+  // Amount of prefixes read and predicted together by predictBatch
+  private static final int BATCH_CHUNK = 4096;
+  // Amount of chunks each worker of predictBatch can be behind the writer
+  private static final int CHUNKS_PER_WORKER = 4;
+  // Size of the buffers used for reading and writing in batch mode
+  private static final int BATCH_BUFFER = 1 << 16;
+  // Amount of chunks and of ranges loadWordsParallel splits the words into for every thread, so
+  // the threads stay busy when some parts take longer than others
+  private static final int PARTS_PER_THREAD = 4;
+  // Amount of lines looked at for every range to pick where the ranges start
+  private static final int SAMPLES_PER_PART = 32;
+
+  /**
+   * Loads words (lines) from the given file and inserts them into a dictionary.
+   *
+   * @param f the file from which the words will be loaded
+   * @return the dictionary with the words loaded from the given file
+   * @throws IOException if there was a problem opening/reading from the file
+   */
+  static DictionaryTree loadWords(File f) throws IOException {
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(new FileInputStream(f), "UTF-8"))) {
+      String word;
+      DictionaryTree d = new DictionaryTree();
+      int wordLine = -1;
+      while ((word = reader.readLine()) != null) {
+        d.insert(word, wordLine);
+        wordLine--;
+      }
+
+      return d;
+    }
+  }
+
+  /**
+   * Loads words (lines) from the given file into a dictionary like {@link #loadWords(File)}, giving
+   * every word minus its line number as its popularity, but builds the dictionary on the common
+   * fork-join pool.
+   *
+   * @param f the file from which the words will be loaded
+   * @return the dictionary with the words loaded from the given file
+   * @throws IOException if there was a problem opening/reading from the file
+   */
+  static DictionaryTree loadWordsParallel(File f) throws IOException {
+    return loadWordsParallel(f, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Loads words (lines) from the given file into a dictionary like {@link #loadWords(File)}, giving
+   * every word minus its line number as its popularity, but builds the dictionary on the given
+   * pool. The file is read into memory and split into chunks of lines which are decoded in
+   * parallel. The words are split into alphabetical ranges of about the same size, using the
+   * words at evenly spaced places in the file to pick where the ranges start, and a separate tree
+   * is built for each range in parallel. The trees are then grafted together under one root, which
+   * only has to merge the few nodes at the edges of the ranges.
+   *
+   * @param f the file from which the words will be loaded
+   * @param pool the pool the trees are built on
+   * @return the dictionary with the words loaded from the given file
+   * @throws IOException if there was a problem opening/reading from the file
+   */
+  static DictionaryTree loadWordsParallel(File f, ForkJoinPool pool) throws IOException {
+    byte[] bytes = Files.readAllBytes(f.toPath());
+    int parts = pool.getParallelism() * PARTS_PER_THREAD;
+    String[] rangeStarts = rangeStarts(bytes, parts);
+
+    // Chunks end right after a newline, so no line or UTF-8 character is split between two of them
+    List<ForkJoinTask<WordChunk>> chunkTasks = new ArrayList<ForkJoinTask<WordChunk>>();
+    int chunkStart = 0;
+    for (int chunk = 1; chunk <= parts && chunkStart < bytes.length; chunk++) {
+      int chunkEnd = chunk == parts ? bytes.length
+          : Math.max(chunkStart, nextLineStart(bytes, (int) ((long) bytes.length * chunk / parts)));
+      if (chunkEnd > chunkStart) {
+        int from = chunkStart;
+        chunkTasks.add(pool.submit(() -> new WordChunk(bytes, from, chunkEnd, rangeStarts)));
+      }
+      chunkStart = chunkEnd;
+    }
+    List<WordChunk> chunks = new ArrayList<WordChunk>();
+    for (ForkJoinTask<WordChunk> task : chunkTasks) {
+      chunks.add(task.join());
+    }
+
+    List<ForkJoinTask<DictionaryTree>> rangeTasks = new ArrayList<ForkJoinTask<DictionaryTree>>();
+    for (int range = 0; range <= rangeStarts.length; range++) {
+      int r = range;
+      rangeTasks.add(pool.submit(() -> buildRange(chunks, r)));
+    }
+    DictionaryTree d = new DictionaryTree();
+    for (ForkJoinTask<DictionaryTree> task : rangeTasks) {
+      d.graft(task.join());
+    }
+    return d;
+  }
+
+  // Picks the words the ranges of loadWordsParallel start at (all but the first range), from the
+  // lines at SAMPLES_PER_PART evenly spaced places in the file for every range
+  private static String[] rangeStarts(byte[] bytes, int parts) {
+    int samples = parts * SAMPLES_PER_PART;
+    List<String> sample = new ArrayList<String>(samples);
+    for (int i = 0; i < samples; i++) {
+      int start = nextLineStart(bytes, (int) ((long) bytes.length * i / samples));
+      int end = start;
+      while (end < bytes.length && bytes[end] != '\n' && bytes[end] != '\r') {
+        end++;
+      }
+      sample.add(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+    }
+    Collections.sort(sample);
+
+    String[] starts = new String[parts - 1];
+    for (int i = 1; i < parts; i++) {
+      starts[i - 1] = sample.get(i * samples / parts);
+    }
+    return starts;
+  }
+
+  // Gets the start of the first line at or after the given index - the index itself if it's 0 or
+  // right after a newline, otherwise the index after the next newline (or the end of the bytes)
+  private static int nextLineStart(byte[] bytes, int index) {
+    if (index == 0) {
+      return 0;
+    }
+    while (index < bytes.length && bytes[index - 1] != '\n') {
+      index++;
+    }
+    return index;
+  }
+
+  // Builds the tree of the words of one range, inserting them in file order so a repeated word
+  // keeps the popularity of its last line
+  private static DictionaryTree buildRange(List<WordChunk> chunks, int range) {
+    DictionaryTree d = new DictionaryTree();
+    int firstLine = 0;
+    for (WordChunk chunk : chunks) {
+      int[] lines = chunk.linesByRange[range];
+      for (int line : lines) {
+        d.insert(chunk.lines.get(line), -(firstLine + line + 1));
+      }
+      firstLine += chunk.lines.size();
+    }
+    return d;
+  }
+
+  // The lines of one chunk of the file, and for each range the (indices of the) lines whose words
+  // belong to it
+  private static final class WordChunk {
+    private final List<String> lines = new ArrayList<String>();
+    private final int[][] linesByRange;
+
+    // Decodes the lines between from and to, which end like the lines read by
+    // BufferedReader.readLine with \n, \r or \r\n
+    WordChunk(byte[] bytes, int from, int to, String[] rangeStarts) {
+      String text = new String(bytes, from, to - from, StandardCharsets.UTF_8);
+      int lineStart = 0;
+      for (int i = 0; i < text.length(); i++) {
+        char c = text.charAt(i);
+        if (c == '\n' || c == '\r') {
+          lines.add(text.substring(lineStart, i));
+          if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+            i++;
+          }
+          lineStart = i + 1;
+        }
+      }
+      if (lineStart < text.length()) {
+        lines.add(text.substring(lineStart));
+      }
+
+      // Sort the lines into their ranges, counting them first so each range gets an exact array
+      int[] rangeOf = new int[lines.size()];
+      int[] counts = new int[rangeStarts.length + 1];
+      for (int line = 0; line < lines.size(); line++) {
+        if (lines.get(line).length() == 0) {
+          rangeOf[line] = -1;
+          continue;
+        }
+        int position = Arrays.binarySearch(rangeStarts, lines.get(line));
+        rangeOf[line] = position >= 0 ? position + 1 : -position - 1;
+        counts[rangeOf[line]]++;
+      }
+      linesByRange = new int[counts.length][];
+      for (int range = 0; range < counts.length; range++) {
+        linesByRange[range] = new int[counts[range]];
+        counts[range] = 0;
+      }
+      for (int line = 0; line < lines.size(); line++) {
+        if (rangeOf[line] >= 0) {
+          linesByRange[rangeOf[line]][counts[rangeOf[line]]++] = line;
+        }
+      }
+    }
+  }
+
+  /**
+   * Prints how many nodes the words in the file take up as a {@link DictionaryTree} compared to
+   * a {@link DafsaDictionary}, which shares the endings of words as well as the beginnings.
+   *
+   * @param f the file from which the words will be loaded
+   * @throws IOException if there was a problem opening/reading from the file
+   */
+  static void printStats(File f) throws IOException {
+    DictionaryTree tree = loadWords(f);
+    DafsaDictionary dafsa = DafsaDictionary.load(f);
+    System.out.println("Words: " + dafsa.wordCount());
+    System.out.println("DictionaryTree nodes: " + tree.size());
+    System.out.println("DafsaDictionary states: " + dafsa.size());
+  }
+
+  /**
+   * Predicts words for every prefix (line) read from in, and writes a line for each of them to out
+   * in the same order: the prefix followed by the predicted words, separated by tabs. The prefixes
+   * are read in chunks which are predicted by a pool of worker threads, while this thread writes
+   * the finished chunks in order. When all prefixes are done, the throughput and the median and
+   * 99th percentile time of a prediction are printed to report.
+   *
+   * @param d the dictionary to predict from - its listener is replaced while predicting
+   * @param in the prefixes, one per line
+   * @param out where the predictions are written - flushed but not closed
+   * @param n the maximum amount of words predicted for each prefix
+   * @param threads the amount of worker threads
+   * @param report where the summary is printed
+   * @return the amount of prefixes predicted
+   * @throws IOException if there was a problem reading or writing
+   */
+  static long predictBatch(DictionaryTree d, BufferedReader in, Writer out, int n, int threads,
+      PrintStream report) throws IOException {
+    DictionaryMetrics metrics = new DictionaryMetrics();
+    d.setListener(metrics);
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    ArrayDeque<Future<String>> pending = new ArrayDeque<Future<String>>();
+    long start = System.nanoTime();
+    long prefixes = 0;
+    try {
+      List<String> chunk = new ArrayList<String>(BATCH_CHUNK);
+      String line;
+      while ((line = in.readLine()) != null) {
+        chunk.add(line);
+        prefixes++;
+        if (chunk.size() == BATCH_CHUNK) {
+          List<String> full = chunk;
+          pending.add(pool.submit(() -> predictChunk(d, full, n)));
+          chunk = new ArrayList<String>(BATCH_CHUNK);
+          // Don't read further ahead than the workers can keep up with
+          if (pending.size() >= threads * CHUNKS_PER_WORKER) {
+            out.write(result(pending.poll()));
+          }
+        }
+      }
+      if (!chunk.isEmpty()) {
+        List<String> last = chunk;
+        pending.add(pool.submit(() -> predictChunk(d, last, n)));
+      }
+      while (!pending.isEmpty()) {
+        out.write(result(pending.poll()));
+      }
+      out.flush();
+    } finally {
+      pool.shutdownNow();
+      d.setListener(null);
+    }
+
+    long nanos = System.nanoTime() - start;
+    DictionaryListener.Operation predict = DictionaryListener.Operation.PREDICT;
+    report.printf("Predicted %d prefixes in %.1f ms (%.0f prefixes/s), p50 %.1f us, p99 %.1f us%n",
+        prefixes, nanos / 1e6, prefixes * 1e9 / Math.max(nanos, 1),
+        metrics.percentileNanos(predict, 0.5) / 1e3, metrics.percentileNanos(predict, 0.99) / 1e3);
+    return prefixes;
+  }
+
+  // Predicts the words for a chunk of prefixes, giving the lines predictBatch writes for them
+  private static String predictChunk(DictionaryTree d, List<String> prefixes, int n) {
+    StringBuilder lines = new StringBuilder(prefixes.size() * 16);
+    for (String prefix : prefixes) {
+      lines.append(prefix);
+      for (String word : d.predict(prefix, n)) {
+        lines.append('\t').append(word);
+      }
+      lines.append('\n');
+    }
+    return lines.toString();
+  }
+
+  // Waits for a chunk of predictBatch to finish
+  private static String result(Future<String> chunk) throws IOException {
+    try {
+      return chunk.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while predicting");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length == 2 && args[0].equals("--stats")) {
+      printStats(new File(args[1]));
+      return;
+    }
+
+    // --batch <dictionary> <n> [<prefixes>] predicts every prefix in the file (or standard input)
+    // and writes the predictions to standard output, with the summary on standard error
+    if ((args.length == 3 || args.length == 4) && args[0].equals("--batch")) {
+      DictionaryTree d = loadWords(new File(args[1]));
+      int n = Integer.parseInt(args[2]);
+      InputStream prefixes = args.length == 4 ? new FileInputStream(args[3]) : System.in;
+      try (BufferedReader in = new BufferedReader(
+          new InputStreamReader(prefixes, StandardCharsets.UTF_8), BATCH_BUFFER)) {
+        Writer out = new BufferedWriter(
+            new OutputStreamWriter(System.out, StandardCharsets.UTF_8), BATCH_BUFFER);
+        predictBatch(d, in, out, n, Runtime.getRuntime().availableProcessors(), System.err);
+      }
+      return;
+    }
+
+    // --serve <dictionary> <port> serves predictions on the loopback address until killed
+    if (args.length == 3 && args[0].equals("--serve")) {
+      DictionaryTree d = loadWords(new File(args[1]));
+      PredictionServer server =
+          new PredictionServer(d, InetAddress.getLoopbackAddress(), Integer.parseInt(args[2]));
+      server.start();
+      System.out.println("Serving predictions on port " + server.port());
+      return;
+    }
+
+    System.out.print("Loading dictionary ... ");
+    DictionaryTree d = loadWords(new File(args[0]));
+    System.out.println("done");
+
+    System.out.println("Enter prefixes for prediction below.");
+
+    try (BufferedReader fromUser = new BufferedReader(new InputStreamReader(System.in))) {
+      String prefix;
+      while ((prefix = fromUser.readLine()) != null) {
+        System.out.println("---> " + d.predict(prefix));
+      }
+    }
+  }
+
+}
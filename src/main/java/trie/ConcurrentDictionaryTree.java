@@ -0,0 +1,355 @@
+package trie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A version of {@link DictionaryTree} which can be used by many threads at once. The nodes are never
+ * changed once made - a write makes new copies of the nodes along the path of its word (sharing the
+ * rest of the tree with the old version) and swaps them in by replacing the root. So
+ * {@link #contains(String)} and {@link #predict(String, int)} just read the current root and walk
+ * down a version of the tree that can't change under them, without ever waiting for a writer, while
+ * writers that were beaten to swapping the root retry on the new one.
+ *
+ * <p>
+ * Predictions are ranked the same way as {@link DictionaryTree#predict(String, int)}.
+ */
+public class ConcurrentDictionaryTree {
+
+  // Maximum amount of words kept in the topWords list of every node
+  private static final int TOP_WORDS = 10;
+
+  // Orders word nodes by popularity, ties in reverse alphabetical order
+  private static final Comparator<Node> RANKING = (a, b) -> {
+    int comparison = Integer.compare(b.popularity, a.popularity);
+    if (comparison == 0) {
+      comparison = b.word.compareTo(a.word);
+    }
+    return comparison;
+  };
+
+  private final AtomicReference<Node> root = new AtomicReference<Node>(Node.EMPTY);
+
+  /**
+   * Inserts the given word into this dictionary. If the word already exists, nothing will change.
+   *
+   * @param word the word to insert
+   */
+  public void insert(String word) {
+    insert(word, DictionaryTree.NO_POPULARITY);
+  }
+
+  /**
+   * Inserts the given word into this dictionary with the given popularity. If the word already
+   * exists, the popularity will be overriden by the given value.
+   *
+   * @param word the word to insert
+   * @param popularity the popularity of the inserted word, or {@link DictionaryTree#NO_POPULARITY}
+   *        for none
+   */
+  public void insert(String word, int popularity) {
+    if (word.length() == 0) {
+      return;
+    }
+    while (true) {
+      Node current = root.get();
+      Node updated = current.insert(word, 0, popularity);
+      if (updated == current || root.compareAndSet(current, updated)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Removes the specified word from this dictionary.
+   *
+   * @param word the word to delete from this dictionary
+   * @return true if the word was in this dictionary; false otherwise
+   */
+  public boolean remove(String word) {
+    while (true) {
+      Node current = root.get();
+      Node updated = current.remove(word, 0);
+      if (updated == current) {
+        return false;
+      }
+      if (root.compareAndSet(current, updated == null ? Node.EMPTY : updated)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Determines whether or not the specified word is in this dictionary.
+   *
+   * @param word the word whose presence will be checked
+   * @return true if the specified word is stored in this dictionary; false otherwise
+   */
+  public boolean contains(String word) {
+    Node node = root.get().getNode(word);
+    return node != null && node.word != null;
+  }
+
+  /**
+   * Gets the popularity of the specified word.
+   *
+   * @param word the word whose popularity will be returned
+   * @return the popularity of the word, or {@link DictionaryTree#NO_POPULARITY} if it has none or
+   *         isn't stored in this dictionary
+   */
+  public int popularity(String word) {
+    Node node = root.get().getNode(word);
+    return node == null || node.word == null ? DictionaryTree.NO_POPULARITY : node.popularity;
+  }
+
+  /**
+   * Predicts a single word based on the input prefix
+   *
+   * @param prefix the prefix of the word returned
+   * @return a word that starts with the given prefix, or an empty optional if no such word is
+   *         found.
+   */
+  public Optional<String> predict(String prefix) {
+    List<String> returnedList = predict(prefix, 1);
+    if (returnedList.size() == 0) {
+      return Optional.empty();
+    } else {
+      return Optional.of(returnedList.get(0));
+    }
+  }
+
+  /**
+   * Predicts the (at most) n most popular full English words based on the specified prefix. If no
+   * word with the specified prefix is found, an empty list is returned. The words all come from the
+   * same version of the dictionary, even while other threads are changing it.
+   *
+   * @param prefix the prefix of the words found
+   * @param n the maximum amount of words returned
+   * @return the (at most) n most popular words with the specified prefix
+   */
+  public List<String> predict(String prefix, int n) {
+    List<String> result = new ArrayList<String>();
+    Node prefixNode = root.get().getNode(prefix);
+
+    if (prefixNode != null) {
+      if (n <= TOP_WORDS) {
+        for (int i = 0; i < n && i < prefixNode.topWords.length; i++) {
+          result.add(prefixNode.topWords[i].word);
+        }
+      } else {
+        bestFirstSearch(prefixNode, n, result);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * @return all words stored in this dictionary as a list, in alphabetical order
+   */
+  public List<String> allWords() {
+    List<String> result = new ArrayList<String>();
+    allWordsHelper(root.get(), result);
+    return result;
+  }
+
+  // Helper for allWords which adds the words at and below the node - children are sorted by key,
+  // so they come out in alphabetical order
+  private static void allWordsHelper(Node node, List<String> result) {
+    if (node.word != null) {
+      result.add(node.word);
+    }
+    for (Node child : node.children) {
+      allWordsHelper(child, result);
+    }
+  }
+
+  // Helper for predict for when more words are wanted than are kept at each node, the same search
+  // as in DictionaryTree
+  private static void bestFirstSearch(Node prefixNode, int n, List<String> result) {
+    PriorityQueue<SearchEntry> queue = new PriorityQueue<SearchEntry>();
+    if (prefixNode.topWords.length > 0) {
+      queue.add(new SearchEntry(prefixNode, false));
+    }
+
+    while (result.size() < n && !queue.isEmpty()) {
+      SearchEntry entry = queue.poll();
+      if (entry.wordOnly) {
+        result.add(entry.node.word);
+      } else {
+        if (entry.node.word != null) {
+          queue.add(new SearchEntry(entry.node, true));
+        }
+        for (Node child : entry.node.children) {
+          if (child.topWords.length > 0) {
+            queue.add(new SearchEntry(child, false));
+          }
+        }
+      }
+    }
+  }
+
+  // Entry in the queue of bestFirstSearch - either just the word ending at a node, or the whole
+  // subtree of the node
+  private static final class SearchEntry implements Comparable<SearchEntry> {
+    private final Node node;
+    private final boolean wordOnly;
+
+    SearchEntry(Node node, boolean wordOnly) {
+      this.node = node;
+      this.wordOnly = wordOnly;
+    }
+
+    // The most popular word this entry can give
+    private Node bestWord() {
+      return wordOnly ? node : node.topWords[0];
+    }
+
+    @Override
+    public int compareTo(SearchEntry other) {
+      return RANKING.compare(bestWord(), other.bestWord());
+    }
+  }
+
+  // A node of one version of the tree. Every field is final, so a node can be shared between
+  // versions and read by any thread once the root it is reachable from has been published
+  private static final class Node {
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+    private static final Node EMPTY = new Node(NO_KEYS, NO_NODES, null, 0);
+
+    // Children sorted by key, with each child at the same index as its key
+    private final char[] keys;
+    private final Node[] children;
+    // The word ending at this node, or null if no word ends here
+    private final String word;
+    private final int popularity;
+    // The (at most) TOP_WORDS most popular words ending at this node or below it, most popular
+    // first
+    private final Node[] topWords;
+
+    private Node(char[] keys, Node[] children, String word, int popularity) {
+      this.keys = keys;
+      this.children = children;
+      this.word = word;
+      this.popularity = popularity;
+      this.topWords = topWords();
+    }
+
+    // Gets the node at the end of the input string, or null if there is no such node
+    private Node getNode(String inputString) {
+      Node node = this;
+      for (int i = 0; i < inputString.length() && node != null; i++) {
+        int index = Arrays.binarySearch(node.keys, inputString.charAt(i));
+        node = index >= 0 ? node.children[index] : null;
+      }
+      return node;
+    }
+
+    // Returns a copy of this node with the word (from the given index on) inserted below it, or
+    // this node itself if the word is already there with the same popularity
+    private Node insert(String inputWord, int index, int inputPopularity) {
+      if (index == inputWord.length()) {
+        if (word != null && popularity == inputPopularity) {
+          return this;
+        }
+        return new Node(keys, children, inputWord, inputPopularity);
+      }
+
+      int slot = Arrays.binarySearch(keys, inputWord.charAt(index));
+      if (slot >= 0) {
+        Node child = children[slot];
+        Node newChild = child.insert(inputWord, index + 1, inputPopularity);
+        if (newChild == child) {
+          return this;
+        }
+        Node[] newChildren = children.clone();
+        newChildren[slot] = newChild;
+        return new Node(keys, newChildren, word, popularity);
+      }
+
+      // Not there yet - add a new child in its sorted place
+      slot = -slot - 1;
+      Node newChild = EMPTY.insert(inputWord, index + 1, inputPopularity);
+      char[] newKeys = new char[keys.length + 1];
+      Node[] newChildren = new Node[children.length + 1];
+      System.arraycopy(keys, 0, newKeys, 0, slot);
+      System.arraycopy(children, 0, newChildren, 0, slot);
+      newKeys[slot] = inputWord.charAt(index);
+      newChildren[slot] = newChild;
+      System.arraycopy(keys, slot, newKeys, slot + 1, keys.length - slot);
+      System.arraycopy(children, slot, newChildren, slot + 1, children.length - slot);
+      return new Node(newKeys, newChildren, word, popularity);
+    }
+
+    // Returns a copy of this node with the word (from the given index on) removed below it, this
+    // node itself if the word isn't there, or null if the node doesn't lead to any word anymore
+    private Node remove(String inputWord, int index) {
+      if (index == inputWord.length()) {
+        if (word == null) {
+          return this;
+        }
+        return children.length == 0 ? null : new Node(keys, children, null, 0);
+      }
+
+      int slot = Arrays.binarySearch(keys, inputWord.charAt(index));
+      if (slot < 0) {
+        return this;
+      }
+      Node child = children[slot];
+      Node newChild = child.remove(inputWord, index + 1);
+      if (newChild == child) {
+        return this;
+      }
+      if (newChild != null) {
+        Node[] newChildren = children.clone();
+        newChildren[slot] = newChild;
+        return new Node(keys, newChildren, word, popularity);
+      }
+
+      // The child is gone - drop it, and this node too if nothing is left in it
+      if (children.length == 1 && word == null) {
+        return null;
+      }
+      char[] newKeys = new char[keys.length - 1];
+      Node[] newChildren = new Node[children.length - 1];
+      System.arraycopy(keys, 0, newKeys, 0, slot);
+      System.arraycopy(children, 0, newChildren, 0, slot);
+      System.arraycopy(keys, slot + 1, newKeys, slot, newKeys.length - slot);
+      System.arraycopy(children, slot + 1, newChildren, slot, newChildren.length - slot);
+      return new Node(newKeys, newChildren, word, popularity);
+    }
+
+    // Works out the most popular words of this node from its own word and its children's lists
+    private Node[] topWords() {
+      Node[] newTopWords = new Node[TOP_WORDS];
+      int count = 0;
+      if (word != null) {
+        newTopWords[count++] = this;
+      }
+      for (Node child : children) {
+        for (Node topWord : child.topWords) {
+          // Children's lists are sorted, so once a word doesn't fit the rest of the list won't
+          // either
+          if (count == TOP_WORDS && RANKING.compare(topWord, newTopWords[count - 1]) >= 0) {
+            break;
+          }
+          int index = count;
+          while (index > 0 && RANKING.compare(topWord, newTopWords[index - 1]) < 0) {
+            index--;
+          }
+          int last = Math.min(count, TOP_WORDS - 1);
+          System.arraycopy(newTopWords, index, newTopWords, index + 1, last - index);
+          newTopWords[index] = topWord;
+          count = Math.min(count + 1, TOP_WORDS);
+        }
+      }
+      return count == 0 ? NO_NODES : Arrays.copyOf(newTopWords, count);
+    }
+  }
+}
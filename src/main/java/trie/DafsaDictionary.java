@@ -0,0 +1,405 @@
+package trie;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * A read-only dictionary stored as a minimal acyclic automaton (DAFSA) - a trie where identical
+ * word endings are shared as well as identical beginnings, so "-ing", "-tion" and "-ness" endings
+ * are only stored once. A shared ending can't hold a popularity per word, so popularities are kept
+ * in an array indexed by each word's position in alphabetical order instead, which every state
+ * can work out from the number of words below it.
+ *
+ * <p>
+ * Made with a {@link Builder} from words given in alphabetical order, or with
+ * {@link #load(File)}.
+ */
+public class DafsaDictionary {
+
+  private final State root;
+  private final int stateCount;
+  // Popularity of every word, by alphabetical position
+  private final int[] popularities;
+  // Segment tree over popularities - best[i] is the alphabetical position of the most popular word
+  // in the range covered by i, with the leaves (one per word) from index popularities.length
+  private final int[] best;
+
+  /*
+   * The constructor
+   */
+  private DafsaDictionary(State root, int stateCount, int[] popularities) {
+    this.root = root;
+    this.stateCount = stateCount;
+    this.popularities = popularities;
+
+    int words = popularities.length;
+    best = new int[2 * Math.max(words, 1)];
+    for (int i = 0; i < words; i++) {
+      best[words + i] = i;
+    }
+    for (int i = words - 1; i > 0; i--) {
+      best[i] = better(best[2 * i], best[2 * i + 1]);
+    }
+  }
+
+  /**
+   * Loads words (lines) from the given file like {@link CLI#loadWords(File)}, giving every word
+   * minus its line number as its popularity, and builds a DAFSA of them. A word on several lines
+   * gets the popularity of its last line, like it does in CLI.loadWords.
+   *
+   * @param f the file from which the words will be loaded
+   * @return the dictionary with the words loaded from the given file
+   * @throws IOException if there was a problem opening/reading from the file
+   */
+  public static DafsaDictionary load(File f) throws IOException {
+    TreeMap<String, Integer> sortedWords = new TreeMap<String, Integer>();
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(new FileInputStream(f), StandardCharsets.UTF_8))) {
+      String word;
+      int wordLine = -1;
+      while ((word = reader.readLine()) != null) {
+        if (word.length() > 0) {
+          sortedWords.put(word, wordLine);
+        }
+        wordLine--;
+      }
+    }
+
+    Builder builder = new Builder();
+    for (Map.Entry<String, Integer> entry : sortedWords.entrySet()) {
+      builder.add(entry.getKey(), entry.getValue());
+    }
+    return builder.build();
+  }
+
+  /**
+   * Determines whether or not the specified word is in this dictionary.
+   *
+   * @param word the word whose presence will be checked
+   * @return true if the specified word is stored in this dictionary; false otherwise
+   */
+  public boolean contains(String word) {
+    return position(word) != -1;
+  }
+
+  /**
+   * Gets the popularity of the specified word.
+   *
+   * @param word the word whose popularity will be returned
+   * @return the popularity of the word, or {@link DictionaryTree#NO_POPULARITY} if it has none or
+   *         isn't stored in this dictionary
+   */
+  public int popularity(String word) {
+    int position = position(word);
+    return position == -1 ? DictionaryTree.NO_POPULARITY : popularities[position];
+  }
+
+  /**
+   * Predicts a single word based on the input prefix
+   *
+   * @param prefix the prefix of the word returned
+   * @return a word that starts with the given prefix, or an empty optional if no such word is
+   *         found.
+   */
+  public Optional<String> predict(String prefix) {
+    List<String> returnedList = predict(prefix, 1);
+    if (returnedList.size() == 0) {
+      return Optional.empty();
+    } else {
+      return Optional.of(returnedList.get(0));
+    }
+  }
+
+  /**
+   * Predicts the (at most) n most popular words based on the specified prefix, ranked the same way
+   * as {@link DictionaryTree#predict(String, int)}. If no word with the specified prefix is found,
+   * an empty list is returned.
+   *
+   * @param prefix the prefix of the words found
+   * @param n the maximum amount of words returned
+   * @return the (at most) n most popular words with the specified prefix
+   */
+  public List<String> predict(String prefix, int n) {
+    List<String> result = new ArrayList<String>();
+
+    // The words starting with the prefix are next to each other alphabetically, so they are a
+    // range of positions starting at the position of the first one
+    State state = root;
+    int first = 0;
+    for (int i = 0; i < prefix.length() && state != null; i++) {
+      first += state.wordsBefore(prefix.charAt(i));
+      state = state.next(prefix.charAt(i));
+    }
+    if (state == null || state.words == 0) {
+      return result;
+    }
+
+    // Repeatedly take the most popular word of a range and split the range around it
+    PriorityQueue<int[]> ranges = new PriorityQueue<int[]>(
+        (a, b) -> better(a[2], b[2]) == a[2] ? -1 : 1);
+    ranges.add(new int[] {first, first + state.words - 1, bestIn(first, first + state.words - 1)});
+    while (result.size() < n && !ranges.isEmpty()) {
+      int[] range = ranges.poll();
+      result.add(wordAt(range[2]));
+      if (range[0] < range[2]) {
+        ranges.add(new int[] {range[0], range[2] - 1, bestIn(range[0], range[2] - 1)});
+      }
+      if (range[2] < range[1]) {
+        ranges.add(new int[] {range[2] + 1, range[1], bestIn(range[2] + 1, range[1])});
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * @return all words stored in this dictionary as a list, in alphabetical order
+   */
+  public List<String> allWords() {
+    List<String> result = new ArrayList<String>();
+    allWordsHelper(root, new StringBuilder(), result);
+    return result;
+  }
+
+  // Helper for allWords which adds the words accepted from the state, using the prefix leading to
+  // it
+  private static void allWordsHelper(State state, StringBuilder prefix, List<String> result) {
+    if (state.isFinal) {
+      result.add(prefix.toString());
+    }
+    for (int i = 0; i < state.labels.length; i++) {
+      prefix.append(state.labels[i]);
+      allWordsHelper(state.targets[i], prefix, result);
+      prefix.setLength(prefix.length() - 1);
+    }
+  }
+
+  /**
+   * @return the number of states in this automaton, to compare with {@link DictionaryTree#size()}
+   *         for the same words
+   */
+  public int size() {
+    return stateCount;
+  }
+
+  /**
+   * @return the number of words stored in this dictionary
+   */
+  public int wordCount() {
+    return popularities.length;
+  }
+
+  // Gets the alphabetical position of the word, or -1 if it isn't stored
+  private int position(String word) {
+    State state = root;
+    int position = 0;
+    for (int i = 0; i < word.length() && state != null; i++) {
+      position += state.wordsBefore(word.charAt(i));
+      state = state.next(word.charAt(i));
+    }
+    return state != null && state.isFinal && word.length() > 0 ? position : -1;
+  }
+
+  // Builds the word at the given alphabetical position by following the word counts down
+  private String wordAt(int position) {
+    StringBuilder word = new StringBuilder();
+    State state = root;
+    while (!state.isFinal || position > 0) {
+      if (state.isFinal) {
+        position--;
+      }
+      int i = 0;
+      while (position >= state.targets[i].words) {
+        position -= state.targets[i].words;
+        i++;
+      }
+      word.append(state.labels[i]);
+      state = state.targets[i];
+    }
+    return word.toString();
+  }
+
+  // Picks the better of two words by position - more popular first, ties in reverse alphabetical
+  // order like DictionaryTree
+  private int better(int position, int otherPosition) {
+    if (popularities[position] != popularities[otherPosition]) {
+      return popularities[position] > popularities[otherPosition] ? position : otherPosition;
+    }
+    return Math.max(position, otherPosition);
+  }
+
+  // Gets the position of the best word between the two positions (inclusive) from the segment tree
+  private int bestIn(int from, int to) {
+    int result = from;
+    int words = popularities.length;
+    for (int low = from + words, high = to + words + 1; low < high; low >>= 1, high >>= 1) {
+      if ((low & 1) == 1) {
+        result = better(result, best[low++]);
+      }
+      if ((high & 1) == 1) {
+        result = better(result, best[--high]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Builds a {@link DafsaDictionary} from words added in alphabetical order. Each new word only
+   * changes the states after the prefix it shares with the previous word, so the states of the rest
+   * of the previous word are final and can be swapped for an identical state seen before.
+   */
+  public static class Builder {
+
+    private final State root = new State();
+    // Every distinct finished state, keyed by itself (equal states have equal transitions)
+    private final Map<State, State> register = new HashMap<State, State>();
+    // The states of the previous word that may still change, each with its parent
+    private final List<State> unchecked = new ArrayList<State>();
+    private final List<State> uncheckedParents = new ArrayList<State>();
+    private int[] popularities = new int[16];
+    private int words = 0;
+    private String previousWord = "";
+
+    /**
+     * Adds a word, which must come after every word added so far in alphabetical order (the order
+     * of {@link String#compareTo(String)}).
+     *
+     * @param word the word to add
+     * @param popularity the popularity of the word
+     * @return this builder
+     * @throws IllegalArgumentException if the word is empty or isn't after the previous word
+     */
+    public Builder add(String word, int popularity) {
+      if (word.length() == 0 || word.compareTo(previousWord) <= 0) {
+        throw new IllegalArgumentException(
+            "Words must be added in alphabetical order: \"" + word + "\" after \"" + previousWord
+                + "\"");
+      }
+
+      int common = 0;
+      while (common < word.length() && common < previousWord.length()
+          && word.charAt(common) == previousWord.charAt(common)) {
+        common++;
+      }
+      minimize(common);
+
+      State state = unchecked.isEmpty() ? root : unchecked.get(unchecked.size() - 1);
+      for (int i = common; i < word.length(); i++) {
+        State next = new State();
+        state.addTransition(word.charAt(i), next);
+        uncheckedParents.add(state);
+        unchecked.add(next);
+        state = next;
+      }
+      state.isFinal = true;
+
+      if (words == popularities.length) {
+        popularities = Arrays.copyOf(popularities, words * 2);
+      }
+      popularities[words++] = popularity;
+      previousWord = word;
+      return this;
+    }
+
+    /**
+     * @return the dictionary of every word added
+     */
+    public DafsaDictionary build() {
+      minimize(0);
+      root.countWords();
+      return new DafsaDictionary(root, register.size() + 1, Arrays.copyOf(popularities, words));
+    }
+
+    // Replaces each unchecked state deeper than the given depth by an identical registered state,
+    // or registers it if it is the first of its kind - deepest first, so children are done first
+    private void minimize(int depth) {
+      for (int i = unchecked.size() - 1; i >= depth; i--) {
+        State state = unchecked.remove(i);
+        State parent = uncheckedParents.remove(i);
+        state.countWords();
+        State existing = register.putIfAbsent(state, state);
+        if (existing != null) {
+          parent.targets[parent.targets.length - 1] = existing;
+        }
+      }
+    }
+  }
+
+  // A state of the automaton. Its transitions are sorted by label
+  private static final class State {
+    private char[] labels = new char[0];
+    private State[] targets = new State[0];
+    private boolean isFinal;
+    // Number of words accepted from this state
+    private int words;
+
+    // Words are added in order, so a new transition always goes at the end
+    private void addTransition(char label, State target) {
+      labels = Arrays.copyOf(labels, labels.length + 1);
+      targets = Arrays.copyOf(targets, targets.length + 1);
+      labels[labels.length - 1] = label;
+      targets[targets.length - 1] = target;
+    }
+
+    private void countWords() {
+      words = isFinal ? 1 : 0;
+      for (State target : targets) {
+        words += target.words;
+      }
+    }
+
+    private State next(char label) {
+      int index = Arrays.binarySearch(labels, label);
+      return index >= 0 ? targets[index] : null;
+    }
+
+    // Gets how many words accepted from this state come before those starting with the label
+    private int wordsBefore(char label) {
+      int before = isFinal ? 1 : 0;
+      for (int i = 0; i < labels.length && labels[i] < label; i++) {
+        before += targets[i].words;
+      }
+      return before;
+    }
+
+    // Registered states have finished transitions to registered states, so two states are the same
+    // if they are both final or not and have the same labels going to the very same states
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof State)) {
+        return false;
+      }
+      State state = (State) other;
+      if (isFinal != state.isFinal || !Arrays.equals(labels, state.labels)) {
+        return false;
+      }
+      for (int i = 0; i < targets.length; i++) {
+        if (targets[i] != state.targets[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int hash = isFinal ? 1 : 0;
+      for (int i = 0; i < labels.length; i++) {
+        hash = 31 * (31 * hash + labels[i]) + System.identityHashCode(targets[i]);
+      }
+      return hash;
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package trie;
+
+/**
+ * Listens to the operations on a {@link DictionaryTree}, set with
+ * {@link DictionaryTree#setListener(DictionaryListener)}. It's called on the thread doing the
+ * operation right after it's done, so it should be quick. {@link DictionaryMetrics} keeps
+ * statistics of them.
+ */
+public interface DictionaryListener {
+
+  /**
+   * The operations which are measured.
+   */
+  enum Operation {
+    INSERT, REMOVE, CONTAINS, PREDICT
+  }
+
+  /**
+   * Called after every measured operation.
+   *
+   * @param operation the operation that was done
+   * @param nanos how long it took, in nanoseconds
+   */
+  void completed(Operation operation, long nanos);
+
+  /**
+   * Called after every prediction, with how much of the tree it looked at. Predictions answered
+   * from a {@link PredictionCache} don't look at the tree at all.
+   *
+   * @param nodesVisited the number of nodes walked down or searched below
+   * @param candidates the number of words and subtrees considered for the prediction
+   */
+  default void searched(int nodesVisited, int candidates) {}
+}
@@ -0,0 +1,172 @@
+package trie;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Keeps statistics of the operations on a {@link DictionaryTree}: a histogram of how long each
+ * operation took, how much of the tree predictions looked at, and how often the
+ * {@link PredictionCache} of the tree was used. It can be read directly or through JMX after
+ * {@link #register(String)}, and can be updated from several threads at once.
+ *
+ * <pre>
+ * DictionaryMetrics metrics = new DictionaryMetrics();
+ * tree.setListener(metrics);
+ * metrics.register("words");
+ * </pre>
+ */
+public class DictionaryMetrics implements DictionaryListener, DictionaryMetricsMXBean {
+
+  private final LatencyHistogram[] latencies = new LatencyHistogram[Operation.values().length];
+  private final LongAdder predictions = new LongAdder();
+  private final LongAdder nodesVisited = new LongAdder();
+  private final LongAdder candidates = new LongAdder();
+  private final PredictionCache cache;
+  // Cache counts when the statistics were last reset
+  private volatile long cacheHitsBefore;
+  private volatile long cacheMissesBefore;
+
+  /**
+   * Makes metrics for a tree without a prediction cache.
+   */
+  public DictionaryMetrics() {
+    this(null);
+  }
+
+  /**
+   * Makes metrics for a tree using the given prediction cache.
+   *
+   * @param cache the cache set on the tree, or null if there is none
+   */
+  public DictionaryMetrics(PredictionCache cache) {
+    for (int i = 0; i < latencies.length; i++) {
+      latencies[i] = new LatencyHistogram();
+    }
+    this.cache = cache;
+    reset();
+  }
+
+  @Override
+  public void completed(Operation operation, long nanos) {
+    latencies[operation.ordinal()].record(nanos);
+  }
+
+  @Override
+  public void searched(int nodes, int candidateCount) {
+    predictions.increment();
+    nodesVisited.add(nodes);
+    candidates.add(candidateCount);
+  }
+
+  /**
+   * Registers these metrics with the platform MBean server, so they can be seen with JMX tools
+   * like JConsole.
+   *
+   * @param name the name to tell these metrics apart from those of other trees
+   * @return the name they were registered with
+   * @throws JMException if they couldn't be registered, e.g. because the name is already used
+   */
+  public ObjectName register(String name) throws JMException {
+    ObjectName objectName =
+        new ObjectName("trie:type=DictionaryMetrics,name=" + ObjectName.quote(name));
+    ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+    return objectName;
+  }
+
+  /**
+   * @param operation the operation whose count will be returned
+   * @return how many times the operation was done
+   */
+  public long count(Operation operation) {
+    return latencies[operation.ordinal()].count();
+  }
+
+  /**
+   * Gets the time at most the given share of an operation took, accurate to within 1/8 of the
+   * time.
+   *
+   * @param operation the operation whose time will be returned
+   * @param percentile the share of the operations, between 0 and 1
+   * @return the time in nanoseconds, or 0 if the operation wasn't done yet
+   */
+  public long percentileNanos(Operation operation, double percentile) {
+    return latencies[operation.ordinal()].percentile(percentile);
+  }
+
+  @Override
+  public Map<String, Long> getCounts() {
+    Map<String, Long> counts = new LinkedHashMap<String, Long>();
+    for (Operation operation : Operation.values()) {
+      counts.put(operation.name(), count(operation));
+    }
+    return counts;
+  }
+
+  @Override
+  public Map<String, Long> getMeanNanos() {
+    Map<String, Long> means = new LinkedHashMap<String, Long>();
+    for (Operation operation : Operation.values()) {
+      means.put(operation.name(), latencies[operation.ordinal()].mean());
+    }
+    return means;
+  }
+
+  @Override
+  public Map<String, Long> getP50Nanos() {
+    return percentiles(0.5);
+  }
+
+  @Override
+  public Map<String, Long> getP99Nanos() {
+    return percentiles(0.99);
+  }
+
+  // Gets the given percentile of every operation
+  private Map<String, Long> percentiles(double percentile) {
+    Map<String, Long> result = new LinkedHashMap<String, Long>();
+    for (Operation operation : Operation.values()) {
+      result.put(operation.name(), percentileNanos(operation, percentile));
+    }
+    return result;
+  }
+
+  @Override
+  public double getAverageNodesVisited() {
+    long count = predictions.sum();
+    return count == 0 ? 0 : (double) nodesVisited.sum() / count;
+  }
+
+  @Override
+  public double getAverageCandidates() {
+    long count = predictions.sum();
+    return count == 0 ? 0 : (double) candidates.sum() / count;
+  }
+
+  @Override
+  public double getCacheHitRatio() {
+    if (cache == null) {
+      return Double.NaN;
+    }
+    long hits = cache.hits() - cacheHitsBefore;
+    long lookups = hits + cache.misses() - cacheMissesBefore;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  @Override
+  public void reset() {
+    for (LatencyHistogram latency : latencies) {
+      latency.reset();
+    }
+    predictions.reset();
+    nodesVisited.reset();
+    candidates.reset();
+    if (cache != null) {
+      cacheHitsBefore = cache.hits();
+      cacheMissesBefore = cache.misses();
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package trie;
+
+import java.util.Map;
+
+/**
+ * The statistics of a {@link DictionaryMetrics} as seen through JMX. The maps are keyed by the
+ * names of {@link DictionaryListener.Operation}.
+ */
+public interface DictionaryMetricsMXBean {
+
+  /**
+   * @return how many times each operation was done
+   */
+  Map<String, Long> getCounts();
+
+  /**
+   * @return the mean time each operation took, in nanoseconds
+   */
+  Map<String, Long> getMeanNanos();
+
+  /**
+   * @return the median time each operation took, in nanoseconds
+   */
+  Map<String, Long> getP50Nanos();
+
+  /**
+   * @return the time 99% of each operation took at most, in nanoseconds
+   */
+  Map<String, Long> getP99Nanos();
+
+  /**
+   * @return the average number of nodes a prediction visited
+   */
+  double getAverageNodesVisited();
+
+  /**
+   * @return the average number of words and subtrees a prediction considered
+   */
+  double getAverageCandidates();
+
+  /**
+   * @return the share of predictions answered from the cache, or NaN if there is no cache
+   */
+  double getCacheHitRatio();
+
+  /**
+   * Sets every statistic back to 0.
+   */
+  void reset();
+}
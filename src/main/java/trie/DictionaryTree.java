@@ -0,0 +1,1780 @@
+package trie;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class DictionaryTree {
+
+  /**
+   * The popularity of a word which was inserted without one. Words without a popularity are ranked
+   * as if their popularity was 0, so inserting a word with a popularity of 0 also leaves it without
+   * one.
+   */
+  public static final int NO_POPULARITY = 0;
+
+  // Maximum amount of words kept in the topWords list of every node
+  private static final int TOP_WORDS = 10;
+
+  // Orders word nodes by popularity plus selections, ties in reverse alphabetical order
+  private static final Comparator<DictionaryTree> RANKING = (a, b) -> {
+    int comparison = Long.compare(b.score(), a.score());
+    if (comparison == 0) {
+      comparison = compareWords(b, a);
+    }
+    return comparison;
+  };
+
+  // Children larger than this are kept in a dense array instead of a sorted one
+  private static final int SMALL_CHILDREN = 8;
+  // Largest range of characters a dense array of children is allowed to cover
+  private static final int MAX_DENSE_RANGE = 256;
+  // Smallest subtree (in nodes) that parallelFold folds as a task of its own
+  private static final int PARALLEL_FOLD_SIZE = 10000;
+  // Smallest amount of prefixes that predictAll splits between threads
+  private static final int PARALLEL_PREDICT_SIZE = 1000;
+
+  // Used by recordSelection to swap in new topWords lists and to create selection counts without
+  // a lock
+  private static final AtomicReferenceFieldUpdater<DictionaryTree, Object> TOP_WORDS_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(DictionaryTree.class, Object.class, "topWords");
+  private static final AtomicReferenceFieldUpdater<DictionaryTree, Selections> SELECTIONS_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(DictionaryTree.class, Selections.class, "selections");
+  // Used by recordSelection to raise the total of a word's selections without a lock
+  private static final AtomicLongFieldUpdater<Selections> TOTAL_UPDATER =
+      AtomicLongFieldUpdater.newUpdater(Selections.class, "total");
+
+  // The children are kept in one of three layouts depending on how many there are, to avoid a map
+  // and boxed Character keys in every node. The character of a child is kept in the child's key, so
+  // this is the only field a node needs for its children:
+  // - null if there are none, or the child itself if there is a single one
+  // - up to SMALL_CHILDREN children (or more which are too far apart to be dense) are kept in an
+  // array sorted by key
+  // - more children are kept in a DenseChildren, at index (key - base) of its array
+  private Object children;
+  // The node this node is a child of - null for the root and for removed nodes
+  private DictionaryTree parent;
+  // The character this node is the child of its parent for. Words aren't kept in the nodes, as
+  // they can be built from the keys on the way up to the root
+  private final char key;
+  private int popularity;
+  private boolean endOfWord;
+  // The (at most) TOP_WORDS most popular words ending at this node or below it, most popular
+  // first: null if there are none, the word node itself if there is one, otherwise an array of
+  // them. Volatile as recordSelection replaces it while predictions are reading it
+  private volatile Object topWords;
+  // How many times the word ending at this node was selected - null until the first selection, so
+  // only selected words pay for it
+  private volatile Selections selections;
+  // Statistics of the subtree of this node (this node included), kept up to date by insert and
+  // remove so the methods returning them don't have to visit every node:
+  // - the number of nodes, of leaves and of words
+  // - the length of the longest branch below this node
+  // - the most children of any node
+  private int subtreeSize = 1;
+  private int subtreeLeaves = 1;
+  private int subtreeWords;
+  private int subtreeHeight;
+  private int subtreeBranching;
+  // State of the whole tree - only set on the root, as the public methods are only called on it
+  private final TreeState tree;
+
+  /*
+   * The constructor
+   */
+  DictionaryTree() {
+    this.popularity = NO_POPULARITY;
+    this.endOfWord = false;
+    this.key = 0;
+    this.tree = new TreeState();
+  }
+
+  // Constructor of the nodes below the root, which don't have the state of the tree
+  private DictionaryTree(DictionaryTree parent, char key) {
+    this.popularity = NO_POPULARITY;
+    this.endOfWord = false;
+    this.key = key;
+    this.tree = null;
+    this.parent = parent;
+  }
+
+  // State of a tree kept on its root, rather than in fields every node would have
+  private static final class TreeState {
+    // Cache of the predictions of the tree, null if there isn't one
+    private PredictionCache predictionCache;
+    // Listener told about the operations on the tree, null if there isn't one so that nothing is
+    // measured
+    private DictionaryListener listener;
+    // Number of times removePrefix took a subtree out of the tree, so that a PredictionSession can
+    // tell its nodes might have been taken out with a subtree
+    private int subtreesRemoved;
+  }
+
+  // More than SMALL_CHILDREN children of a node, kept by key - base with empty slots left as null
+  private static final class DenseChildren {
+    private char base;
+    private int count;
+    private DictionaryTree[] nodes;
+
+    DenseChildren(char base, DictionaryTree[] nodes, int count) {
+      this.base = base;
+      this.nodes = nodes;
+      this.count = count;
+    }
+  }
+
+  // Selections of the word ending at a node
+  private static final class Selections {
+    private final LongAdder counter = new LongAdder();
+    // The total of the counter which the word is ranked by - only ever raised by recordSelection,
+    // and set lower only by decaySelections
+    private volatile long total;
+  }
+
+  /**
+   * Inserts the given word into this dictionary. If the word already exists, nothing will change.
+   *
+   * @param word the word to insert
+   */
+  public void insert(String word) {
+    insert(word, NO_POPULARITY);
+  }
+
+  /**
+   * Inserts the given word into this dictionary with the given popularity. If the word already
+   * exists, the popularity will be overriden by the given value.
+   *
+   * @param word the word to insert
+   * @param popularity the popularity of the inserted word, or {@link #NO_POPULARITY} for none
+   */
+  public void insert(String word, int popularity) {
+    if (tree.listener == null) {
+      insertWord(word, popularity);
+    } else {
+      long start = System.nanoTime();
+      insertWord(word, popularity);
+      tree.listener.completed(DictionaryListener.Operation.INSERT, System.nanoTime() - start);
+    }
+  }
+
+  // Helper for insert which does the actual inserting
+  private void insertWord(String word, int popularity) {
+    if (word.length() == 0) {
+      return;
+    }
+
+    // Walk down the word, only creating the nodes that don't exist yet
+    DictionaryTree node = this;
+    DictionaryTree branchNode = null;
+    boolean branchNodeWasLeaf = false;
+    int created = 0;
+    for (int i = 0; i < word.length(); i++) {
+      DictionaryTree child = node.getChild(word.charAt(i));
+      if (child == null) {
+        if (created == 0) {
+          branchNode = node;
+          branchNodeWasLeaf = node.isLeaf();
+        }
+        created++;
+        child = new DictionaryTree(node, word.charAt(i));
+        node.putChild(child);
+      }
+      node = child;
+    }
+
+    // The new nodes are a single branch, so their statistics only depend on the node below them
+    if (created > 0) {
+      for (DictionaryTree newNode = node.parent; newNode != branchNode; newNode = newNode.parent) {
+        newNode.refreshStats();
+      }
+      branchNode.updateStats(created, branchNodeWasLeaf ? 0 : 1);
+    }
+
+    // Set endOfWord and the popularity on the last node - if popularity already set it will be
+    // overridden. Nothing has to change if the word is already stored with the same popularity
+    boolean wasWord = node.endOfWord;
+    int oldPopularity = node.popularity;
+    if (wasWord && oldPopularity == popularity) {
+      return;
+    }
+    node.endOfWord = true;
+    node.popularity = popularity;
+    if (tree.predictionCache != null) {
+      tree.predictionCache.invalidate(word);
+    }
+
+    // Update the word counts and most popular words of every node on the path, from the last node
+    // upwards
+    if (!wasWord) {
+      for (DictionaryTree ancestor = node; ancestor != null; ancestor = ancestor.parent) {
+        ancestor.subtreeWords++;
+        ancestor.promoteTopWord(node);
+      }
+    } else if (popularity > oldPopularity) {
+      for (DictionaryTree ancestor = node; ancestor != null; ancestor = ancestor.parent) {
+        ancestor.promoteTopWord(node);
+      }
+    } else {
+      node.demoteTopWord(node);
+    }
+  }
+
+  /**
+   * Removes the specified word from this dictionary. Returns true if the word can be removed as
+   * it's in the DictionaryTree, and false if the input word isn't in the tree. NOTE - this is not
+   * what was initially asked for, explained further in SOLUTION.md
+   *
+   * @param word the word to delete from this dictionary
+   * @return whether or not the parent can delete this node from its children
+   */
+  public boolean remove(String word) {
+    if (tree.listener == null) {
+      return removeWord(word);
+    }
+    long start = System.nanoTime();
+    boolean removed = removeWord(word);
+    tree.listener.completed(DictionaryListener.Operation.REMOVE, System.nanoTime() - start);
+    return removed;
+  }
+
+  // Helper for remove which does the actual removing
+  private boolean removeWord(String word) {
+    DictionaryTree node = getNode(word);
+    if (node == null || !node.endOfWord) {
+      return false;
+    }
+
+    node.endOfWord = false;
+    node.popularity = NO_POPULARITY;
+    node.selections = null;
+
+    // Walk back up the word removing the nodes which no longer lead to any word
+    DictionaryTree deepest = node;
+    int index = word.length() - 1;
+    while (deepest != this && deepest.isLeaf() && !deepest.endOfWord) {
+      DictionaryTree parentNode = deepest.parent;
+      parentNode.removeChild(deepest);
+      deepest.parent = null;
+      deepest = parentNode;
+      index--;
+    }
+    int removed = word.length() - 1 - index;
+    if (removed > 0) {
+      deepest.updateStats(-removed, deepest.isLeaf() ? 0 : -1);
+    }
+
+    for (DictionaryTree ancestor = deepest; ancestor != null; ancestor = ancestor.parent) {
+      ancestor.subtreeWords--;
+    }
+
+    deepest.demoteTopWord(node);
+    if (tree.predictionCache != null) {
+      tree.predictionCache.invalidate(word);
+    }
+    return true;
+  }
+
+  /**
+   * Removes every given word which is in this dictionary.
+   *
+   * @param words the words to delete from this dictionary
+   * @return the number of words that were removed
+   */
+  public int removeAll(Collection<String> words) {
+    int removed = 0;
+    for (String word : words) {
+      if (remove(word)) {
+        removed++;
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Removes every word starting with the given prefix, by taking the whole subtree of the prefix
+   * out of the tree at once. Only the nodes on the path of the prefix are changed, so it takes as
+   * long as removing a single word however many words are removed.
+   *
+   * @param prefix the prefix of the words to delete, or "" to delete every word
+   * @return the number of words that were removed
+   */
+  public int removePrefix(String prefix) {
+    DictionaryTree prefixNode = getNode(prefix);
+    if (prefixNode == null || prefixNode.subtreeWords == 0) {
+      return 0;
+    }
+    int removedWords = prefixNode.subtreeWords;
+    int removedNodes = prefixNode.subtreeSize;
+    int removedLeaves = prefixNode.subtreeLeaves;
+
+    // Take the subtree out, along with the nodes above it which then no longer lead to any word
+    DictionaryTree deepest = prefixNode;
+    int index = prefix.length() - 1;
+    while (deepest != this && (deepest == prefixNode || (deepest.isLeaf() && !deepest.endOfWord))) {
+      DictionaryTree parentNode = deepest.parent;
+      parentNode.removeChild(deepest);
+      deepest.parent = null;
+      deepest = parentNode;
+      index--;
+    }
+    if (deepest == prefixNode) {
+      // Removing every word - the root stays and becomes empty
+      prefixNode.children = null;
+      prefixNode.topWords = null;
+      prefixNode.refreshStats();
+    } else {
+      removedNodes += prefix.length() - 1 - index - 1;
+      deepest.updateStats(-removedNodes, (deepest.isLeaf() ? 1 : 0) - removedLeaves);
+      for (DictionaryTree ancestor = deepest; ancestor != null; ancestor = ancestor.parent) {
+        ancestor.subtreeWords -= removedWords;
+      }
+      deepest.removeTopWordsBelow(prefixNode);
+    }
+
+    tree.subtreesRemoved++;
+    if (tree.predictionCache != null) {
+      tree.predictionCache.invalidatePrefix(prefix);
+    }
+    return removedWords;
+  }
+
+  /**
+   * @return the number of words stored in this tree
+   */
+  public int wordCount() {
+    return subtreeWords;
+  }
+
+  // Number of times removePrefix took a subtree out of this tree, for PredictionSession
+  int subtreesRemoved() {
+    return tree.subtreesRemoved;
+  }
+
+  /**
+   * Determines whether or not the specified word is in this dictionary.
+   *
+   * @param word the word whose presence will be checked
+   * @return true if the specified word is stored in this tree; false otherwise
+   */
+  public boolean contains(String word) {
+    if (tree.listener == null) {
+      DictionaryTree node = getNode(word);
+      return node != null && node.endOfWord;
+    }
+    long start = System.nanoTime();
+    DictionaryTree node = getNode(word);
+    tree.listener.completed(DictionaryListener.Operation.CONTAINS, System.nanoTime() - start);
+    return node != null && node.endOfWord;
+  }
+
+  /**
+   * Gets the popularity of the specified word.
+   *
+   * @param word the word whose popularity will be returned
+   * @return the popularity of the word, or {@link #NO_POPULARITY} if it has none or isn't stored
+   *         in this tree
+   */
+  public int popularity(String word) {
+    DictionaryTree node = getNode(word);
+    return node != null && node.endOfWord ? node.popularity : NO_POPULARITY;
+  }
+
+  /**
+   * Gets the popularity of the specified word as an optional, which is empty if the word has no
+   * popularity or isn't stored in this tree.
+   *
+   * @param word the word whose popularity will be returned
+   * @return the popularity of the word, if it has one
+   */
+  public Optional<Integer> getPopularity(String word) {
+    int result = popularity(word);
+    return result == NO_POPULARITY ? Optional.empty() : Optional.of(result);
+  }
+
+  /**
+   * Records that the specified word was selected, e.g. when a prediction was accepted. Every
+   * selection counts as one more popularity when ranking the word, so it moves up in the
+   * predictions of its prefixes straight away. Unlike the other methods that change the tree, this
+   * can be called by many threads at once, also while they are predicting - the counters don't
+   * need a lock, and the most popular words of the prefixes are replaced instead of changed in
+   * place. It must not be called at the same time as insert or remove.
+   *
+   * <p>
+   * The cached predictions of the word's prefixes are made stale without taking the lock of the
+   * {@link PredictionCache}, so selecting threads don't wait for each other or for predictions.
+   *
+   * @param word the word that was selected
+   * @return true if the word was recorded, false if it isn't stored in this tree
+   */
+  public boolean recordSelection(String word) {
+    DictionaryTree node = getNode(word);
+    if (node == null || !node.endOfWord) {
+      return false;
+    }
+
+    Selections selections = node.selections;
+    if (selections == null) {
+      SELECTIONS_UPDATER.compareAndSet(node, null, new Selections());
+      selections = node.selections;
+    }
+    selections.counter.increment();
+    // Other threads may be selecting the word too, and a thread which read the counter earlier can
+    // publish its total later - keeping the larger total means the published one never goes back
+    TOTAL_UPDATER.accumulateAndGet(selections, selections.counter.sum(), Math::max);
+
+    // A node whose list the word doesn't get into is unchanged, and so are all the nodes above it
+    for (DictionaryTree ancestor = node; ancestor != null; ancestor = ancestor.parent) {
+      if (!ancestor.promoteTopWordAtomically(node)) {
+        break;
+      }
+    }
+    // Only once the lists are promoted, so a prediction reading the old lists gets a stale stamp
+    PredictionCache cache = tree.predictionCache;
+    if (cache != null) {
+      cache.invalidateSelected(word);
+    }
+    return true;
+  }
+
+  /**
+   * Gets how many times the specified word was selected, as recorded by {@link #recordSelection}
+   * and reduced by {@link #decaySelections}.
+   *
+   * @param word the word whose selections will be returned
+   * @return the number of selections of the word, or 0 if it isn't stored in this tree
+   */
+  public long selections(String word) {
+    DictionaryTree node = getNode(word);
+    if (node == null || !node.endOfWord) {
+      return 0;
+    }
+    Selections selections = node.selections;
+    return selections == null ? 0 : selections.total;
+  }
+
+  /**
+   * Multiplies the selections of every word by the given factor (rounding down), so that old
+   * selections count less than recent ones. Meant to be called periodically, e.g. by a
+   * ScheduledExecutorService - it visits every node, so it costs about as much as allWords. Can
+   * be called while other threads predict, but selections recorded while it runs may not be
+   * ranked until the word is selected again.
+   *
+   * @param factor how much of the selections is kept, between 0 and 1
+   */
+  public void decaySelections(double factor) {
+    if (!(factor >= 0 && factor <= 1)) {
+      throw new IllegalArgumentException("Decay factor must be between 0 and 1: " + factor);
+    }
+    decayHelper(factor);
+    if (tree.predictionCache != null) {
+      tree.predictionCache.clear();
+    }
+  }
+
+  // Helper for decaySelections, decaying the words below this node first so that the most popular
+  // words of this node can be worked out again from its children's lists
+  private void decayHelper(double factor) {
+    for (int slot = 0; slot < childSlots(); slot++) {
+      DictionaryTree value = childAt(slot);
+      if (value != null) {
+        value.decayHelper(factor);
+      }
+    }
+    Selections wordSelections = selections;
+    if (wordSelections != null) {
+      long kept = (long) (wordSelections.counter.sumThenReset() * factor);
+      wordSelections.counter.add(kept);
+      TOTAL_UPDATER.set(wordSelections, kept);
+    }
+    refreshTopWords();
+  }
+
+  // Ranking score of the word ending at this node
+  private long score() {
+    Selections wordSelections = selections;
+    return wordSelections == null ? popularity : (long) popularity + wordSelections.total;
+  }
+
+  /**
+   * Predicts a single word based on the input prefix
+   * 
+   * @param prefix the prefix of the word returned
+   * @return a word that starts with the given prefix, or an empty optional if no such word is
+   *         found.
+   */
+  public Optional<String> predict(String prefix) {
+    // Call the other predict method with n as n = 1
+    ArrayList<String> returnedList = (ArrayList<String>) predict(prefix, 1);
+
+    // Convert output into required Optional
+    if (returnedList.size() == 0) {
+      return Optional.empty();
+    } else {
+      return Optional.of(returnedList.get(0));
+    }
+  }
+
+  /**
+   * Predicts the (at most) n most popular full English words based on the specified prefix. If no
+   * word with the specified prefix is found, an empty list is returned.
+   *
+   * 
+   * @param prefix the prefix of the words found
+   * @return the (at most) n most popular words with the specified prefix
+   */
+  public List<String> predict(String prefix, int n) {
+    if (tree.listener == null) {
+      return predictWords(prefix, n, null);
+    }
+    long start = System.nanoTime();
+    int[] counts = new int[2];
+    List<String> result = predictWords(prefix, n, counts);
+    tree.listener.completed(DictionaryListener.Operation.PREDICT, System.nanoTime() - start);
+    tree.listener.searched(counts[0], counts[1]);
+    return result;
+  }
+
+  // Helper for predict which does the actual predicting. If counts isn't null, the number of nodes
+  // visited is added to counts[0] and the number of candidate words and subtrees to counts[1]
+  private List<String> predictWords(String prefix, int n, int[] counts) {
+    // Asking for fewer than no words gives none, the same whether or not the prefix is cached
+    n = Math.max(n, 0);
+    PredictionCache cache = tree.predictionCache;
+    // Read before predicting, so a selection made while predicting leaves the result stale
+    long stamp = 0;
+    if (cache != null) {
+      stamp = cache.stamp(prefix);
+      List<String> cached = cache.get(prefix, n);
+      if (cached != null) {
+        return cached;
+      }
+    }
+
+    DictionaryTree prefixNode = this;
+    for (int i = 0; i < prefix.length() && prefixNode != null; i++) {
+      prefixNode = prefixNode.getChild(prefix.charAt(i));
+      if (counts != null) {
+        counts[0]++;
+      }
+    }
+    List<String> result = predictBelow(prefixNode, n, counts);
+    if (cache != null) {
+      cache.put(prefix, n, result, stamp);
+    }
+    return result;
+  }
+
+  // Predicts the (at most) n most popular words ending at the given node or below it, for predict
+  // and PredictionSession - returns an empty list if the node is null
+  static List<String> predictBelow(DictionaryTree prefixNode, int n) {
+    return predictBelow(prefixNode, n, null);
+  }
+
+  // Same as above, adding what it looked at to counts if they aren't null like predictWords
+  private static List<String> predictBelow(DictionaryTree prefixNode, int n, int[] counts) {
+    ArrayList<String> result = new ArrayList<String>();
+
+    if (prefixNode != null) {
+      if (n <= TOP_WORDS) {
+        // The most popular words below the prefix are already known - copy the first n of them
+        Object topWords = prefixNode.topWords;
+        for (int i = 0; i < n && i < topWordCount(topWords); i++) {
+          result.add(topWordAt(topWords, i).word());
+        }
+        if (counts != null) {
+          counts[0]++;
+          counts[1] += result.size();
+        }
+      } else {
+        bestFirstSearch(Collections.singletonList(prefixNode), n, result, null, counts);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Predicts the (at most) n most popular words for each of the given prefixes, like
+   * {@link #predict(String, int)} but quicker for many prefixes at once. Each distinct prefix is
+   * only predicted once, and they are sorted so that prefixes sharing their first characters only
+   * walk down those characters once. Large batches are split between threads by first character.
+   *
+   * @param prefixes the prefixes to predict words for
+   * @param n the maximum amount of words returned for each prefix
+   * @return the (at most) n most popular words of each prefix, in the same order as the prefixes
+   */
+  public List<List<String>> predictAll(Collection<String> prefixes, int n) {
+    // Number every distinct prefix, so each one is only predicted once
+    HashMap<String, Integer> ids = new HashMap<String, Integer>();
+    int[] inputIds = new int[prefixes.size()];
+    int index = 0;
+    for (String prefix : prefixes) {
+      Integer id = ids.get(prefix);
+      if (id == null) {
+        id = ids.size();
+        ids.put(prefix, id);
+      }
+      inputIds[index++] = id;
+    }
+    String[] sorted = ids.keySet().toArray(new String[0]);
+    Arrays.sort(sorted);
+
+    // Split the sorted prefixes into runs starting with the same character, which all go into the
+    // same child of the root
+    List<int[]> runs = new ArrayList<int[]>();
+    int start = 0;
+    for (int i = 1; i <= sorted.length; i++) {
+      if (i == sorted.length || firstChar(sorted[i]) != firstChar(sorted[start])) {
+        runs.add(new int[] {start, i});
+        start = i;
+      }
+    }
+
+    List<List<String>> sortedResults = new ArrayList<List<String>>(
+        Collections.nCopies(sorted.length, (List<String>) null));
+    Stream<int[]> runStream =
+        inputIds.length >= PARALLEL_PREDICT_SIZE ? runs.parallelStream() : runs.stream();
+    runStream.forEach(run -> predictAllHelper(sorted, run[0], run[1], n, sortedResults));
+
+    int[] positions = new int[sorted.length];
+    for (int i = 0; i < sorted.length; i++) {
+      positions[ids.get(sorted[i])] = i;
+    }
+    List<List<String>> results = new ArrayList<List<String>>(inputIds.length);
+    for (int id : inputIds) {
+      results.add(new ArrayList<String>(sortedResults.get(positions[id])));
+    }
+    return results;
+  }
+
+  // The first character of a prefix, or -1 for the empty prefix
+  private static int firstChar(String prefix) {
+    return prefix.length() == 0 ? -1 : prefix.charAt(0);
+  }
+
+  // Helper for predictAll which predicts the words of the sorted prefixes between from and to.
+  // The nodes of the previous prefix are kept, so only the characters after the start it shares
+  // with the previous prefix are walked down
+  private void predictAllHelper(String[] prefixes, int from, int to, int n,
+      List<List<String>> results) {
+    ArrayList<DictionaryTree> path = new ArrayList<DictionaryTree>();
+    path.add(this);
+
+    for (int i = from; i < to; i++) {
+      String prefix = prefixes[i];
+      int shared = 0;
+      if (i > from) {
+        String previous = prefixes[i - 1];
+        while (shared < prefix.length() && shared < previous.length()
+            && prefix.charAt(shared) == previous.charAt(shared)) {
+          shared++;
+        }
+      }
+      // The path might be shorter than the shared start if the previous prefix wasn't in the tree
+      shared = Math.min(shared, path.size() - 1);
+      path.subList(shared + 1, path.size()).clear();
+      while (path.size() <= prefix.length()) {
+        DictionaryTree child = path.get(path.size() - 1).getChild(prefix.charAt(path.size() - 1));
+        if (child == null) {
+          break;
+        }
+        path.add(child);
+      }
+
+      DictionaryTree prefixNode = path.size() == prefix.length() + 1 ? path.get(prefix.length())
+          : null;
+      results.set(i, predictBelow(prefixNode, n));
+    }
+  }
+
+  /**
+   * Predicts the (at most) n most popular words which start with the given prefix, or with a
+   * prefix that is at most maxEdits single character insertions, deletions or substitutions away
+   * from it, for when the prefix was mistyped. Words closer to the prefix come first, and words as
+   * close as each other are ranked like {@link #predict(String, int)}.
+   *
+   * @param prefix the (possibly mistyped) prefix of the words found
+   * @param maxEdits the maximum amount of changes to the prefix
+   * @param n the maximum amount of words returned
+   * @return the (at most) n closest and most popular words
+   * @throws IllegalArgumentException if maxEdits is negative
+   */
+  public List<String> predictFuzzy(String prefix, int maxEdits, int n) {
+    if (maxEdits < 0) {
+      throw new IllegalArgumentException("maxEdits can't be negative: " + maxEdits);
+    }
+
+    // The subtrees whose path is each distance away from the prefix
+    List<List<DictionaryTree>> closeNodes = new ArrayList<List<DictionaryTree>>();
+    for (int distance = 0; distance <= maxEdits; distance++) {
+      closeNodes.add(new ArrayList<DictionaryTree>());
+    }
+    int[] distances = new int[prefix.length() + 1];
+    for (int i = 0; i < distances.length; i++) {
+      distances[i] = i;
+    }
+    fuzzyHelper(prefix, distances, maxEdits + 1, closeNodes);
+
+    // A word below several close nodes is only as far away as the closest one, so it is skipped
+    // when it comes up again further away
+    ArrayList<String> result = new ArrayList<String>();
+    HashSet<String> found = new HashSet<String>();
+    for (int distance = 0; distance <= maxEdits && result.size() < n; distance++) {
+      bestFirstSearch(closeNodes.get(distance), n, result, found, null);
+    }
+    return result;
+  }
+
+  // Helper for predictFuzzy which finds the nodes below this one whose path is closer to the
+  // prefix than that of any node above them. The distances are the edit distances between the path
+  // of this node and each prefix of the prefix (the row of the Levenshtein table for this node).
+  // Every distance below this node is at least the smallest of them, so the search stops once that
+  // can't beat the closest node above
+  private void fuzzyHelper(String prefix, int[] distances, int closestAbove,
+      List<List<DictionaryTree>> closeNodes) {
+    int distance = distances[prefix.length()];
+    if (distance < closestAbove) {
+      closeNodes.get(distance).add(this);
+      closestAbove = distance;
+    }
+
+    int smallest = distance;
+    for (int d : distances) {
+      smallest = Math.min(smallest, d);
+    }
+    if (smallest >= closestAbove) {
+      return;
+    }
+
+    int[] childDistances = new int[distances.length];
+    for (int slot = 0; slot < childSlots(); slot++) {
+      DictionaryTree value = childAt(slot);
+      if (value == null) {
+        continue;
+      }
+      char key = value.key;
+      childDistances[0] = distances[0] + 1;
+      for (int i = 1; i < distances.length; i++) {
+        int substitution = distances[i - 1] + (prefix.charAt(i - 1) == key ? 0 : 1);
+        childDistances[i] =
+            Math.min(substitution, Math.min(distances[i], childDistances[i - 1]) + 1);
+      }
+      value.fuzzyHelper(prefix, childDistances, closestAbove, closeNodes);
+    }
+  }
+
+  /**
+   * Sets the listener which is told how long every insert, remove, contains and predict took, and
+   * how much of the tree each prediction looked at. Nothing is measured while there is no listener.
+   *
+   * @param listener the listener to tell about operations, or null to stop measuring them
+   */
+  public void setListener(DictionaryListener listener) {
+    tree.listener = listener;
+  }
+
+  /**
+   * Sets the cache used by {@link #predict(String, int)}. Inserting, removing or selecting a word
+   * drops the cached predictions which the word could be part of.
+   *
+   * @param cache the cache to keep predictions in, or null to stop caching them
+   */
+  public void setPredictionCache(PredictionCache cache) {
+    if (cache != null) {
+      cache.clear();
+    }
+    tree.predictionCache = cache;
+  }
+
+  // Helper to get the node at the end of the input string by walking down it one character at a
+  // time - returns null if there is no such node
+  private DictionaryTree getNode(String inputString) {
+    DictionaryTree node = this;
+    for (int i = 0; i < inputString.length() && node != null; i++) {
+      node = node.getChild(inputString.charAt(i));
+    }
+    return node;
+  }
+
+  // Helper for predict for when more words are wanted than are kept at each node. Nodes are
+  // expanded in order of the most popular word below them (the first of their topWords), so when
+  // a word comes out of the queue no word left in the queue can be more popular than it, and the
+  // search stops as soon as the result has n words instead of visiting every word below the
+  // prefix. Several separate subtrees can be searched together for predictFuzzy - if found isn't
+  // null, the words in it are skipped and the words added to the result are added to it too. Counts
+  // are added to like in predictWords if they aren't null
+  private static void bestFirstSearch(Collection<DictionaryTree> prefixNodes, int n,
+      List<String> result, Set<String> found, int[] counts) {
+    PriorityQueue<SearchEntry> queue = new PriorityQueue<SearchEntry>();
+    for (DictionaryTree prefixNode : prefixNodes) {
+      if (prefixNode.topWords != null) {
+        queue.add(new SearchEntry(prefixNode, false));
+      }
+    }
+
+    int polled = 0;
+    int expanded = 0;
+    while (result.size() < n && !queue.isEmpty()) {
+      SearchEntry entry = queue.poll();
+      polled++;
+      if (entry.wordOnly) {
+        String word = entry.node.word();
+        if (found == null || found.add(word)) {
+          result.add(word);
+        }
+      } else {
+        expanded++;
+        if (entry.node.endOfWord) {
+          queue.add(new SearchEntry(entry.node, true));
+        }
+        for (int slot = 0; slot < entry.node.childSlots(); slot++) {
+          DictionaryTree value = entry.node.childAt(slot);
+          if (value != null && value.topWords != null) {
+            queue.add(new SearchEntry(value, false));
+          }
+        }
+      }
+    }
+
+    // Every entry put in the queue was a candidate, and the subtrees taken out of it were visited
+    if (counts != null) {
+      counts[0] += expanded;
+      counts[1] += polled + queue.size();
+    }
+  }
+
+  // Entry in the queue of bestFirstSearch - either just the word ending at a node, or the whole
+  // subtree of the node
+  private static final class SearchEntry implements Comparable<SearchEntry> {
+    private final DictionaryTree node;
+    private final boolean wordOnly;
+
+    SearchEntry(DictionaryTree node, boolean wordOnly) {
+      this.node = node;
+      this.wordOnly = wordOnly;
+    }
+
+    // The most popular word this entry can give
+    private DictionaryTree bestWord() {
+      return wordOnly ? node : topWordAt(node.topWords, 0);
+    }
+
+    @Override
+    public int compareTo(SearchEntry other) {
+      return RANKING.compare(bestWord(), other.bestWord());
+    }
+  }
+
+  // Moves the given word node (this node or one below it) into its place in this node's most
+  // popular words after it was inserted or became more popular. Only allocates when the list grows
+  private void promoteTopWord(DictionaryTree wordNode) {
+    if (topWords == null || topWords == wordNode) {
+      topWords = wordNode;
+      return;
+    } else if (topWords instanceof DictionaryTree) {
+      topWords = twoWords((DictionaryTree) topWords, wordNode);
+      return;
+    }
+
+    DictionaryTree[] list = (DictionaryTree[]) topWords;
+    int index = list.length - 1;
+    while (index >= 0 && list[index] != wordNode) {
+      index--;
+    }
+
+    if (index == -1) {
+      if (list.length < TOP_WORDS) {
+        list = Arrays.copyOf(list, list.length + 1);
+        topWords = list;
+      } else if (RANKING.compare(wordNode, list[TOP_WORDS - 1]) >= 0) {
+        return;
+      }
+      // Take the last place - when the list is full this drops the least popular word
+      index = list.length - 1;
+    }
+
+    // Move it in front of every less popular word
+    while (index > 0 && RANKING.compare(wordNode, list[index - 1]) < 0) {
+      list[index] = list[index - 1];
+      index--;
+    }
+    list[index] = wordNode;
+  }
+
+  // Same as promoteTopWord for recordSelection, which can run while other threads read the list or
+  // promote other words in it: a promoted copy of the list is swapped in with a compare-and-set,
+  // starting again if another thread swapped in a list first. Returns false if the word isn't in
+  // the list and not popular enough to get into it
+  private boolean promoteTopWordAtomically(DictionaryTree wordNode) {
+    while (true) {
+      Object current = topWords;
+      if (current == wordNode) {
+        return true;
+      } else if (current instanceof DictionaryTree) {
+        // A selected word is stored, so the node has at least that word and the list isn't empty
+        DictionaryTree other = (DictionaryTree) current;
+        if (TOP_WORDS_UPDATER.compareAndSet(this, current, twoWords(other, wordNode))) {
+          return true;
+        }
+        continue;
+      }
+
+      DictionaryTree[] list = (DictionaryTree[]) current;
+      int index = list.length - 1;
+      while (index >= 0 && list[index] != wordNode) {
+        index--;
+      }
+
+      DictionaryTree[] promoted;
+      if (index == -1) {
+        if (list.length < TOP_WORDS) {
+          promoted = Arrays.copyOf(list, list.length + 1);
+        } else if (RANKING.compare(wordNode, list[TOP_WORDS - 1]) >= 0) {
+          return false;
+        } else {
+          promoted = list.clone();
+        }
+        index = promoted.length - 1;
+      } else if (index == 0 || RANKING.compare(wordNode, list[index - 1]) >= 0) {
+        // Already in its place
+        return true;
+      } else {
+        promoted = list.clone();
+      }
+
+      while (index > 0 && RANKING.compare(wordNode, promoted[index - 1]) < 0) {
+        promoted[index] = promoted[index - 1];
+        index--;
+      }
+      promoted[index] = wordNode;
+      if (TOP_WORDS_UPDATER.compareAndSet(this, current, promoted)) {
+        return true;
+      }
+    }
+  }
+
+  // Makes the list of two words, most popular first
+  private static DictionaryTree[] twoWords(DictionaryTree a, DictionaryTree b) {
+    return RANKING.compare(a, b) < 0 ? new DictionaryTree[] {a, b} : new DictionaryTree[] {b, a};
+  }
+
+  // Number of words in a topWords list
+  private static int topWordCount(Object topWords) {
+    if (topWords == null) {
+      return 0;
+    } else if (topWords instanceof DictionaryTree) {
+      return 1;
+    } else {
+      return ((DictionaryTree[]) topWords).length;
+    }
+  }
+
+  // Gets the word node at the given index of a topWords list
+  private static DictionaryTree topWordAt(Object topWords, int index) {
+    return topWords instanceof DictionaryTree ? (DictionaryTree) topWords
+        : ((DictionaryTree[]) topWords)[index];
+  }
+
+  // Whether this node's topWords list has the given word node
+  private boolean hasTopWord(DictionaryTree wordNode) {
+    Object list = topWords;
+    for (int i = 0; i < topWordCount(list); i++) {
+      if (topWordAt(list, i) == wordNode) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Recalculates the most popular words of this node and the nodes above it after the given word
+  // node became less popular or was removed. A node whose list doesn't have the word is unchanged,
+  // and so are all the nodes above it, so the walk stops there
+  private void demoteTopWord(DictionaryTree wordNode) {
+    for (DictionaryTree ancestor = this; ancestor != null; ancestor = ancestor.parent) {
+      if (!ancestor.hasTopWord(wordNode)) {
+        return;
+      }
+      ancestor.refreshTopWords();
+    }
+  }
+
+  // Recalculates the most popular words of this node and the nodes above it after the subtree of
+  // the given node was taken out from below this node. Like demoteTopWord, the walk stops at the
+  // first node whose list has none of its words
+  private void removeTopWordsBelow(DictionaryTree removed) {
+    for (DictionaryTree ancestor = this; ancestor != null; ancestor = ancestor.parent) {
+      Object list = ancestor.topWords;
+      boolean listed = false;
+      for (int i = 0; i < topWordCount(list) && !listed; i++) {
+        listed = topWordAt(list, i).isBelow(removed);
+      }
+      if (!listed) {
+        return;
+      }
+      ancestor.refreshTopWords();
+    }
+  }
+
+  // Whether this node is the given node or one below it
+  private boolean isBelow(DictionaryTree node) {
+    for (DictionaryTree ancestor = this; ancestor != null; ancestor = ancestor.parent) {
+      if (ancestor == node) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Recalculates the most popular words of this node from its own word and its children's lists
+  private void refreshTopWords() {
+    DictionaryTree[] newTopWords = new DictionaryTree[TOP_WORDS];
+    int count = 0;
+    if (endOfWord) {
+      count = addTopWord(newTopWords, count, this);
+    }
+    for (int slot = 0; slot < childSlots(); slot++) {
+      DictionaryTree value = childAt(slot);
+      if (value == null) {
+        continue;
+      }
+      Object childTopWords = value.topWords;
+      for (int i = 0; i < topWordCount(childTopWords); i++) {
+        DictionaryTree topWord = topWordAt(childTopWords, i);
+        // Children's lists are sorted, so once a word doesn't fit the rest of the list won't either
+        if (count == TOP_WORDS && RANKING.compare(topWord, newTopWords[count - 1]) >= 0) {
+          break;
+        }
+        count = addTopWord(newTopWords, count, topWord);
+      }
+    }
+
+    if (count == 0) {
+      topWords = null;
+    } else if (count == 1) {
+      topWords = newTopWords[0];
+    } else {
+      topWords = Arrays.copyOf(newTopWords, count);
+    }
+  }
+
+  // Adds a word node into the sorted array of the given length, dropping the least popular word if
+  // the array is full. Returns the new amount of words in the array
+  private static int addTopWord(DictionaryTree[] topWords, int count, DictionaryTree wordNode) {
+    int index = count;
+    while (index > 0 && RANKING.compare(wordNode, topWords[index - 1]) < 0) {
+      index--;
+    }
+    if (index < topWords.length) {
+      int last = Math.min(count, topWords.length - 1);
+      System.arraycopy(topWords, index, topWords, index + 1, last - index);
+      topWords[index] = wordNode;
+      count = Math.min(count + 1, topWords.length);
+    }
+    return count;
+  }
+
+  /**
+   * @return the number of leaves in this tree, i.e. the number of words which are not prefixes of
+   *         any other word.
+   */
+  public int numLeaves() {
+    return subtreeLeaves;
+  }
+
+  /**
+   * Determines whether the input node is a leaf node
+   * 
+   * @param node which will be checked whether it's a lead node
+   * @return true if the passed node is a leaf, false otherwise
+   */
+  private boolean isLeaf() {
+    return children == null;
+  }
+
+  // Whether this node was taken out of the tree by remove - only meant for nodes other than the
+  // root, which never has a parent
+  boolean isRemoved() {
+    return parent == null;
+  }
+
+  // Gets the child for the given character, or null if there isn't one
+  DictionaryTree getChild(char key) {
+    Object c = children;
+    if (c instanceof DictionaryTree) {
+      DictionaryTree child = (DictionaryTree) c;
+      return child.key == key ? child : null;
+    } else if (c instanceof DictionaryTree[]) {
+      DictionaryTree[] sorted = (DictionaryTree[]) c;
+      int index = searchSorted(sorted, key);
+      return index >= 0 ? sorted[index] : null;
+    } else if (c != null) {
+      DenseChildren dense = (DenseChildren) c;
+      int index = key - dense.base;
+      return index >= 0 && index < dense.nodes.length ? dense.nodes[index] : null;
+    } else {
+      return null;
+    }
+  }
+
+  // Binary search for the child with the given key in a sorted array of children, returning its
+  // index or (-insertion point - 1) like Arrays.binarySearch
+  private static int searchSorted(DictionaryTree[] sorted, char key) {
+    int low = 0;
+    int high = sorted.length - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      char middleKey = sorted[middle].key;
+      if (middleKey < key) {
+        low = middle + 1;
+      } else if (middleKey > key) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -(low + 1);
+  }
+
+  // Number of children of this node
+  private int childCount() {
+    Object c = children;
+    if (c == null) {
+      return 0;
+    } else if (c instanceof DictionaryTree) {
+      return 1;
+    } else if (c instanceof DictionaryTree[]) {
+      return ((DictionaryTree[]) c).length;
+    } else {
+      return ((DenseChildren) c).count;
+    }
+  }
+
+  // Adds a child for a character which doesn't have one yet, changing layout if needed
+  private void putChild(DictionaryTree child) {
+    if (children == null) {
+      children = child;
+    } else if (children instanceof DictionaryTree) {
+      children = putSorted(new DictionaryTree[] {(DictionaryTree) children}, child);
+    } else if (children instanceof DictionaryTree[]) {
+      DictionaryTree[] sorted = (DictionaryTree[]) children;
+      if (sorted.length < SMALL_CHILDREN) {
+        children = putSorted(sorted, child);
+        return;
+      }
+      // Sorted array is full - go dense if the characters are close enough together
+      int low = Math.min(sorted[0].key, child.key);
+      int high = Math.max(sorted[sorted.length - 1].key, child.key);
+      if (high - low < MAX_DENSE_RANGE) {
+        DictionaryTree[] dense = new DictionaryTree[high - low + 1];
+        for (DictionaryTree node : sorted) {
+          dense[node.key - low] = node;
+        }
+        dense[child.key - low] = child;
+        children = new DenseChildren((char) low, dense, sorted.length + 1);
+      } else {
+        children = putSorted(sorted, child);
+      }
+    } else {
+      putDense((DenseChildren) children, child);
+    }
+  }
+
+  // Makes a copy of the sorted children with the given child inserted in order
+  private static DictionaryTree[] putSorted(DictionaryTree[] sorted, DictionaryTree child) {
+    int index = -searchSorted(sorted, child.key) - 1;
+    DictionaryTree[] newSorted = new DictionaryTree[sorted.length + 1];
+    System.arraycopy(sorted, 0, newSorted, 0, index);
+    newSorted[index] = child;
+    System.arraycopy(sorted, index, newSorted, index + 1, sorted.length - index);
+    return newSorted;
+  }
+
+  // Inserts a child into the dense layout, widening the array if the key is outside of it
+  private void putDense(DenseChildren dense, DictionaryTree child) {
+    int low = Math.min(dense.base, child.key);
+    int high = Math.max(dense.base + dense.nodes.length - 1, child.key);
+    if (high - low >= MAX_DENSE_RANGE) {
+      // Too wide to stay dense, so fall back to a (larger) sorted array
+      children = putSorted(toSorted(dense), child);
+    } else {
+      if (low != dense.base || high >= dense.base + dense.nodes.length) {
+        DictionaryTree[] nodes = new DictionaryTree[high - low + 1];
+        System.arraycopy(dense.nodes, 0, nodes, dense.base - low, dense.nodes.length);
+        dense.nodes = nodes;
+        dense.base = (char) low;
+      }
+      dense.nodes[child.key - dense.base] = child;
+      dense.count++;
+    }
+  }
+
+  // Removes the given child, changing to a smaller layout if needed
+  private void removeChild(DictionaryTree child) {
+    if (children instanceof DictionaryTree) {
+      children = null;
+    } else if (children instanceof DictionaryTree[]) {
+      DictionaryTree[] sorted = (DictionaryTree[]) children;
+      int index = searchSorted(sorted, child.key);
+      if (sorted.length == 2) {
+        children = sorted[1 - index];
+      } else {
+        DictionaryTree[] newSorted = new DictionaryTree[sorted.length - 1];
+        System.arraycopy(sorted, 0, newSorted, 0, index);
+        System.arraycopy(sorted, index + 1, newSorted, index, sorted.length - index - 1);
+        children = newSorted;
+      }
+    } else {
+      DenseChildren dense = (DenseChildren) children;
+      dense.nodes[child.key - dense.base] = null;
+      dense.count--;
+      if (dense.count <= SMALL_CHILDREN) {
+        children = toSorted(dense);
+      }
+    }
+  }
+
+  // Gets the children of the dense layout as a sorted array
+  private static DictionaryTree[] toSorted(DenseChildren dense) {
+    DictionaryTree[] sorted = new DictionaryTree[dense.count];
+    int count = 0;
+    for (DictionaryTree node : dense.nodes) {
+      if (node != null) {
+        sorted[count++] = node;
+      }
+    }
+    return sorted;
+  }
+
+  // Children are looped over by slot, from 0 to childSlots() - 1, in alphabetical order. In the
+  // dense layout some slots are empty, and childAt returns null for them
+  private int childSlots() {
+    Object c = children;
+    if (c == null) {
+      return 0;
+    } else if (c instanceof DictionaryTree) {
+      return 1;
+    } else if (c instanceof DictionaryTree[]) {
+      return ((DictionaryTree[]) c).length;
+    } else {
+      return ((DenseChildren) c).nodes.length;
+    }
+  }
+
+  // Gets the child in the given slot - null if the slot is empty
+  private DictionaryTree childAt(int slot) {
+    Object c = children;
+    if (c instanceof DictionaryTree) {
+      return (DictionaryTree) c;
+    } else if (c instanceof DictionaryTree[]) {
+      return ((DictionaryTree[]) c)[slot];
+    } else {
+      return ((DenseChildren) c).nodes[slot];
+    }
+  }
+
+  // Gets the word ending at this node, built from the keys on the way up to the root
+  private String word() {
+    char[] chars = new char[depth()];
+    DictionaryTree node = this;
+    for (int i = chars.length - 1; i >= 0; i--) {
+      chars[i] = node.key;
+      node = node.parent;
+    }
+    return new String(chars);
+  }
+
+  // Number of characters between the root and this node
+  private int depth() {
+    int depth = 0;
+    for (DictionaryTree node = this; node.parent != null; node = node.parent) {
+      depth++;
+    }
+    return depth;
+  }
+
+  // Compares the words ending at two nodes alphabetically without building them: the deeper node
+  // is walked up to the depth of the other, and then both are walked up until they have the same
+  // parent, where their keys decide. If one of them was reached from the other, it's the shorter
+  // word and comes first
+  private static int compareWords(DictionaryTree a, DictionaryTree b) {
+    int depthA = a.depth();
+    int depthB = b.depth();
+    DictionaryTree x = a;
+    DictionaryTree y = b;
+    for (int depth = depthA; depth > depthB; depth--) {
+      x = x.parent;
+    }
+    for (int depth = depthB; depth > depthA; depth--) {
+      y = y.parent;
+    }
+    if (x == y) {
+      return Integer.compare(depthA, depthB);
+    }
+    while (x.parent != y.parent) {
+      x = x.parent;
+      y = y.parent;
+    }
+    return Character.compare(x.key, y.key);
+  }
+
+  /**
+   * @return the maximum number of children held by any node in this tree
+   */
+  public int maximumBranching() {
+    return subtreeBranching;
+  }
+
+  /**
+   * @return the height of this tree, i.e. the length of the longest branch
+   */
+  public int height() {
+    return subtreeHeight;
+  }
+
+  /**
+   * @return the number of nodes in this tree
+   */
+  public int size() {
+    return subtreeSize;
+  }
+
+  /**
+   * @return the longest word in this tree
+   */
+  public String longestWord() {
+    // Walk down the longest branch, taking the first child in alphabetical order where several
+    // are as long - only the children of the nodes on the branch are looked at
+    StringBuilder longest = new StringBuilder(subtreeHeight);
+    DictionaryTree node = this;
+    while (node.subtreeHeight > 0) {
+      DictionaryTree next = null;
+      for (int slot = 0; next == null; slot++) {
+        DictionaryTree value = node.childAt(slot);
+        if (value != null && value.subtreeHeight == node.subtreeHeight - 1) {
+          next = value;
+        }
+      }
+      longest.append(next.key);
+      node = next;
+    }
+    return longest.toString();
+  }
+
+  // Adds the given amounts of nodes and leaves to the statistics of this node and every node above
+  // it, after nodes were added or removed right below this node. The other statistics are worked
+  // out again from the children, up to the first node where they don't change anymore
+  private void updateStats(int nodesAdded, int leavesAdded) {
+    boolean shapeChanged = true;
+    for (DictionaryTree ancestor = this; ancestor != null; ancestor = ancestor.parent) {
+      ancestor.subtreeSize += nodesAdded;
+      ancestor.subtreeLeaves += leavesAdded;
+      if (shapeChanged) {
+        shapeChanged = ancestor.refreshShape();
+      }
+    }
+  }
+
+  // Works out all statistics of this node from its children
+  private void refreshStats() {
+    subtreeSize = 1;
+    subtreeLeaves = 0;
+    subtreeWords = endOfWord ? 1 : 0;
+    for (int slot = 0; slot < childSlots(); slot++) {
+      DictionaryTree value = childAt(slot);
+      if (value != null) {
+        subtreeSize += value.subtreeSize;
+        subtreeLeaves += value.subtreeLeaves;
+        subtreeWords += value.subtreeWords;
+      }
+    }
+    if (isLeaf()) {
+      subtreeLeaves = 1;
+    }
+    refreshShape();
+  }
+
+  // Works out the height and maximum branching of this node from its children. Returns whether
+  // either of them changed
+  private boolean refreshShape() {
+    int height = 0;
+    int branching = childCount();
+    for (int slot = 0; slot < childSlots(); slot++) {
+      DictionaryTree value = childAt(slot);
+      if (value != null) {
+        height = Math.max(height, value.subtreeHeight + 1);
+        branching = Math.max(branching, value.subtreeBranching);
+      }
+    }
+
+    boolean changed = height != subtreeHeight || branching != subtreeBranching;
+    subtreeHeight = height;
+    subtreeBranching = branching;
+    return changed;
+  }
+
+  /**
+   * @return all words stored in this tree as a list, in alphabetical order
+   */
+  public List<String> allWords() {
+    ArrayList<String> stringList = new ArrayList<String>();
+    words().forEachRemaining(stringList::add);
+    return stringList;
+  }
+
+  /**
+   * Goes through the words stored in this tree in alphabetical order, one at a time, without making
+   * a list of them first. The tree must not be changed while the iterator is used.
+   *
+   * @return an iterator over all words stored in this tree
+   */
+  public Iterator<String> words() {
+    return words("");
+  }
+
+  /**
+   * Goes through the words starting with the given prefix in alphabetical order, one at a time,
+   * without making a list of them first. The tree must not be changed while the iterator is used.
+   *
+   * @param prefix the prefix of the words
+   * @return an iterator over the words with the given prefix
+   */
+  public Iterator<String> words(String prefix) {
+    return Spliterators.iterator(new WordSpliterator(getNode(prefix)));
+  }
+
+  /**
+   * Streams the words stored in this tree in alphabetical order. A parallel stream splits the tree
+   * between its threads by subtrees. The tree must not be changed while the stream is used.
+   *
+   * @return a stream of all words stored in this tree
+   */
+  public Stream<String> stream() {
+    return stream("");
+  }
+
+  /**
+   * Streams the words starting with the given prefix in alphabetical order. A parallel stream
+   * splits the tree between its threads by subtrees. The tree must not be changed while the stream
+   * is used.
+   *
+   * @param prefix the prefix of the words
+   * @return a stream of the words with the given prefix
+   */
+  public Stream<String> stream(String prefix) {
+    return StreamSupport.stream(new WordSpliterator(getNode(prefix)), false);
+  }
+
+  // Goes through the words of a few subtrees which are next to each other alphabetically, with the
+  // subtrees still to go through on a stack - the first one on top. Each node taken off the stack
+  // gives its own word, built from the keys above it, and puts its children on the stack
+  private static final class WordSpliterator implements Spliterator<String> {
+    private final ArrayDeque<DictionaryTree> stack;
+    // Word to give before the subtrees on the stack - set when splitting took apart the node it
+    // ends at
+    private String firstWord;
+
+    WordSpliterator(DictionaryTree node) {
+      this(null, new ArrayDeque<DictionaryTree>());
+      if (node != null) {
+        stack.push(node);
+      }
+    }
+
+    WordSpliterator(String firstWord, ArrayDeque<DictionaryTree> stack) {
+      this.firstWord = firstWord;
+      this.stack = stack;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+      if (firstWord != null) {
+        action.accept(firstWord);
+        firstWord = null;
+        return true;
+      }
+      while (!stack.isEmpty()) {
+        DictionaryTree node = stack.pop();
+        pushChildren(node);
+        if (node.endOfWord) {
+          action.accept(node.word());
+          return true;
+        }
+      }
+      return false;
+    }
+
+    // Splits off the first half of the subtrees. With a single subtree left it is replaced by its
+    // children first, so the top of the tree gets split by its first characters
+    @Override
+    public Spliterator<String> trySplit() {
+      if (stack.size() == 1 && firstWord == null) {
+        DictionaryTree node = stack.pop();
+        if (node.endOfWord) {
+          firstWord = node.word();
+        }
+        pushChildren(node);
+      }
+      if (stack.size() < 2) {
+        return null;
+      }
+
+      ArrayDeque<DictionaryTree> firstHalf = new ArrayDeque<DictionaryTree>();
+      for (int i = stack.size() / 2; i > 0; i--) {
+        firstHalf.addLast(stack.pollFirst());
+      }
+      Spliterator<String> split = new WordSpliterator(firstWord, firstHalf);
+      firstWord = null;
+      return split;
+    }
+
+    // Every word ends at a node, so the number of nodes left is more than the number of words
+    @Override
+    public long estimateSize() {
+      long size = firstWord == null ? 0 : 1;
+      for (DictionaryTree node : stack) {
+        size += node.subtreeSize;
+      }
+      return size;
+    }
+
+    @Override
+    public int characteristics() {
+      return ORDERED | SORTED | DISTINCT | NONNULL;
+    }
+
+    // Words are in alphabetical order, which is the natural order of strings
+    @Override
+    public Comparator<? super String> getComparator() {
+      return null;
+    }
+
+    // Puts the children of the node on the stack so the first one ends up on top
+    private void pushChildren(DictionaryTree node) {
+      for (int slot = node.childSlots() - 1; slot >= 0; slot--) {
+        DictionaryTree value = node.childAt(slot);
+        if (value != null) {
+          stack.push(value);
+        }
+      }
+    }
+  }
+
+  /**
+   * Moves all words of the other tree into this tree, for putting together trees built
+   * separately. Subtrees only the other tree has are moved over whole, and only the nodes both
+   * trees have are merged, so it's quick when the trees share few prefixes - like trees of the
+   * words of separate alphabetical ranges. The other tree is left empty.
+   *
+   * @param other a tree which doesn't have any of the words this tree has
+   * @throws IllegalArgumentException if both trees have the same word
+   */
+  void graft(DictionaryTree other) {
+    checkGraft(other);
+    graftHelper(other);
+    other.children = null;
+    other.topWords = null;
+    other.refreshStats();
+    if (tree.predictionCache != null) {
+      tree.predictionCache.clear();
+    }
+
+    for (DictionaryTree ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+      ancestor.refreshTopWords();
+      ancestor.refreshStats();
+    }
+  }
+
+  // Helper for graft which throws if a node both trees have is the end of a word in both, before
+  // anything is moved
+  private void checkGraft(DictionaryTree other) {
+    for (int slot = 0; slot < other.childSlots(); slot++) {
+      DictionaryTree child = other.childAt(slot);
+      DictionaryTree own = child == null ? null : getChild(child.key);
+      if (own != null) {
+        if (own.endOfWord && child.endOfWord) {
+          throw new IllegalArgumentException("Both trees have the word " + own.word());
+        }
+        own.checkGraft(child);
+      }
+    }
+  }
+
+  // Helper for graft which moves the children of the other node into this node, merging the ones
+  // both have, and then works out the statistics and most popular words of this node again
+  private void graftHelper(DictionaryTree other) {
+    for (int slot = 0; slot < other.childSlots(); slot++) {
+      DictionaryTree child = other.childAt(slot);
+      if (child == null) {
+        continue;
+      }
+      DictionaryTree own = getChild(child.key);
+      if (own == null) {
+        child.parent = this;
+        putChild(child);
+      } else {
+        if (child.endOfWord) {
+          own.endOfWord = true;
+          own.popularity = child.popularity;
+          own.selections = child.selections;
+        }
+        own.graftHelper(child);
+      }
+    }
+    refreshStats();
+    refreshTopWords();
+  }
+
+  /**
+   * Makes a read-only copy of this tree for when no more words will be inserted or removed. The
+   * copy stores its nodes in a few flat arrays instead of as objects, so it takes far less memory
+   * and is quicker to search. Selections recorded with {@link #recordSelection} are added to the
+   * popularities of the copy, so it ranks words the same way as this tree.
+   *
+   * @return a frozen copy of this tree
+   */
+  public FrozenDictionary freeze() {
+    int size = size();
+    char[] labels = new char[size];
+    int[] firstChild = new int[size + 1];
+    int[] popularities = new int[size];
+    long[] wordEnds = new long[(size + 63) / 64];
+
+    // Number the nodes in breadth-first order, so the children of every node are next to each other
+    // and in alphabetical order. The queue array ends up holding every node at its new number
+    DictionaryTree[] queue = new DictionaryTree[size];
+    queue[0] = this;
+    int tail = 1;
+    for (int head = 0; head < size; head++) {
+      DictionaryTree node = queue[head];
+      firstChild[head] = tail;
+      // Scores beyond the range of an int keep the top of the range
+      popularities[head] = (int) Math.min(Integer.MAX_VALUE, node.score());
+      if (node.endOfWord) {
+        wordEnds[head >>> 6] |= 1L << head;
+      }
+      for (int slot = 0; slot < node.childSlots(); slot++) {
+        if (node.childAt(slot) != null) {
+          labels[tail] = node.childAt(slot).key;
+          queue[tail] = node.childAt(slot);
+          tail++;
+        }
+      }
+    }
+    firstChild[size] = tail;
+
+    return new FrozenDictionary(labels, firstChild, popularities, wordEnds);
+  }
+
+  /**
+   * Folds the tree using the given function. Each of this node's children is folded with the same
+   * function, and these results are stored in a collection, cResults, say, then the final result is
+   * calculated using f.apply(this, cResults).
+   *
+   * @param f the summarising function, which is passed the result of invoking the given function
+   * @param <A> the type of the folded value
+   * @return the result of folding the tree using f
+   */
+  <A> A fold(BiFunction<DictionaryTree, Collection<A>, A> f) {
+    ArrayList<A> cResults = new ArrayList<A>(childCount());
+    for (int slot = 0; slot < childSlots(); slot++) {
+      DictionaryTree value = childAt(slot);
+      if (value != null) {
+        cResults.add(value.fold(f));
+      }
+    }
+    return f.apply(this, cResults);
+  }
+
+  /**
+   * Folds the tree like {@link #fold(BiFunction)}, folding large subtrees at the same time in the
+   * common {@link ForkJoinPool}. The function is called from several threads so it has to be
+   * thread safe, and the tree must not be changed during the fold.
+   *
+   * @param f the summarising function, which is passed the result of invoking the given function
+   * @param <A> the type of the folded value
+   * @return the result of folding the tree using f
+   */
+  <A> A parallelFold(BiFunction<DictionaryTree, Collection<A>, A> f) {
+    return parallelFold(f, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Folds the tree like {@link #fold(BiFunction)}, folding large subtrees at the same time in the
+   * given pool. The function is called from several threads so it has to be thread safe, and the
+   * tree must not be changed during the fold.
+   *
+   * @param f the summarising function, which is passed the result of invoking the given function
+   * @param pool the pool the subtrees are folded in
+   * @param <A> the type of the folded value
+   * @return the result of folding the tree using f
+   */
+  <A> A parallelFold(BiFunction<DictionaryTree, Collection<A>, A> f, ForkJoinPool pool) {
+    return pool.invoke(new FoldTask<A>(this, f));
+  }
+
+  // Task of parallelFold - children with at least PARALLEL_FOLD_SIZE nodes below them are forked
+  // as tasks of their own, smaller ones are folded right away as splitting them further would cost
+  // more than it saves
+  private static final class FoldTask<A> extends RecursiveTask<A> {
+    private static final long serialVersionUID = 1L;
+    private final DictionaryTree node;
+    private final BiFunction<DictionaryTree, Collection<A>, A> f;
+
+    FoldTask(DictionaryTree node, BiFunction<DictionaryTree, Collection<A>, A> f) {
+      this.node = node;
+      this.f = f;
+    }
+
+    @Override
+    protected A compute() {
+      // Results are kept in child order, with the results of forked tasks filled in once they are
+      // joined
+      ArrayList<A> results = new ArrayList<A>(node.childCount());
+      ArrayList<FoldTask<A>> forked = new ArrayList<FoldTask<A>>(node.childCount());
+      for (int slot = 0; slot < node.childSlots(); slot++) {
+        DictionaryTree value = node.childAt(slot);
+        if (value == null) {
+          continue;
+        }
+        if (value.size() >= PARALLEL_FOLD_SIZE) {
+          FoldTask<A> task = new FoldTask<A>(value, f);
+          task.fork();
+          forked.add(task);
+          results.add(null);
+        } else {
+          forked.add(null);
+          results.add(value.fold(f));
+        }
+      }
+
+      for (int i = 0; i < forked.size(); i++) {
+        if (forked.get(i) != null) {
+          results.set(i, forked.get(i).join());
+        }
+      }
+      return f.apply(node, results);
+    }
+  }
+
+}
@@ -0,0 +1,244 @@
+package trie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * A read-only dictionary whose nodes are numbered in breadth-first order, so the children of
+ * every node are next to each other and sorted alphabetically. Subclasses decide where the node
+ * data is kept - {@link FrozenDictionary} in arrays, {@link MappedDictionary} in a memory-mapped
+ * file - and this class answers queries from it. Predictions are ranked the same way as
+ * {@link DictionaryTree#predict(String, int)}.
+ */
+public abstract class FlatDictionary {
+
+  /**
+   * @param node a node number
+   * @return the character leading to the node - the label of the root (node 0) isn't used
+   */
+  abstract char label(int node);
+
+  /**
+   * @param node a node number, or the number of nodes
+   * @return the number of the first child of the node - the children of node i are the nodes from
+   *         firstChild(i) up to firstChild(i + 1) - 1
+   */
+  abstract int firstChild(int node);
+
+  /**
+   * @param node a node number
+   * @return the parent of the node, or -1 for the root
+   */
+  abstract int parent(int node);
+
+  /**
+   * @param node a node number
+   * @return the popularity of the word ending at the node
+   */
+  abstract int popularity(int node);
+
+  /**
+   * @param node a node number
+   * @return the position of the node when the strings leading to all nodes are sorted
+   *         alphabetically
+   */
+  abstract int alphabeticalOrder(int node);
+
+  /**
+   * @param node a node number
+   * @return the most popular word node at or below the node, or -1 if there are no words there
+   */
+  abstract int bestWord(int node);
+
+  /**
+   * @param node a node number
+   * @return true if the node is the end of a word
+   */
+  abstract boolean isWord(int node);
+
+  /**
+   * @return the number of nodes in this dictionary, the same as {@link DictionaryTree#size()} of
+   *         the tree it was made from
+   */
+  public abstract int size();
+
+  /**
+   * @return the height of this dictionary, i.e. the length of the longest branch
+   */
+  public abstract int height();
+
+  /**
+   * @return the number of leaves in this dictionary, i.e. the number of words which are not
+   *         prefixes of any other word.
+   */
+  public abstract int numLeaves();
+
+  /**
+   * Determines whether or not the specified word is in this dictionary.
+   *
+   * @param word the word whose presence will be checked
+   * @return true if the specified word is stored in this dictionary; false otherwise
+   */
+  public boolean contains(String word) {
+    int node = getNode(word);
+    return node != -1 && isWord(node);
+  }
+
+  /**
+   * Gets the popularity of the specified word.
+   *
+   * @param word the word whose popularity will be returned
+   * @return the popularity of the word, or {@link DictionaryTree#NO_POPULARITY} if it has none or
+   *         isn't stored in this dictionary
+   */
+  public int popularity(String word) {
+    int node = getNode(word);
+    return node != -1 && isWord(node) ? popularity(node) : DictionaryTree.NO_POPULARITY;
+  }
+
+  /**
+   * Predicts a single word based on the input prefix
+   *
+   * @param prefix the prefix of the word returned
+   * @return a word that starts with the given prefix, or an empty optional if no such word is
+   *         found.
+   */
+  public Optional<String> predict(String prefix) {
+    List<String> returnedList = predict(prefix, 1);
+    if (returnedList.size() == 0) {
+      return Optional.empty();
+    } else {
+      return Optional.of(returnedList.get(0));
+    }
+  }
+
+  /**
+   * Predicts the (at most) n most popular words based on the specified prefix. If no word with the
+   * specified prefix is found, an empty list is returned.
+   *
+   * @param prefix the prefix of the words found
+   * @param n the maximum amount of words returned
+   * @return the (at most) n most popular words with the specified prefix
+   */
+  public List<String> predict(String prefix, int n) {
+    ArrayList<String> result = new ArrayList<String>();
+    int prefixNode = getNode(prefix);
+    if (prefixNode == -1 || bestWord(prefixNode) == -1) {
+      return result;
+    }
+
+    // Best-first search like DictionaryTree's - nodes are ranked by the best word below them, so a
+    // word coming out of the queue is better than anything still in it
+    PriorityQueue<SearchEntry> queue = new PriorityQueue<SearchEntry>();
+    queue.add(new SearchEntry(prefixNode, false));
+    while (result.size() < n && !queue.isEmpty()) {
+      SearchEntry entry = queue.poll();
+      if (entry.wordOnly) {
+        result.add(wordAt(entry.node));
+      } else {
+        if (isWord(entry.node)) {
+          queue.add(new SearchEntry(entry.node, true));
+        }
+        for (int child = firstChild(entry.node); child < firstChild(entry.node + 1); child++) {
+          if (bestWord(child) != -1) {
+            queue.add(new SearchEntry(child, false));
+          }
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * @return all words stored in this dictionary as a list, in alphabetical order
+   */
+  public List<String> allWords() {
+    List<String> result = new ArrayList<String>();
+    StringBuilder prefix = new StringBuilder();
+    allWordsHelper(0, prefix, result);
+    return result;
+  }
+
+  // Helper for allWords which adds the words at and below the node, using the prefix of the node
+  private void allWordsHelper(int node, StringBuilder prefix, List<String> result) {
+    if (isWord(node)) {
+      result.add(prefix.toString());
+    }
+    for (int child = firstChild(node); child < firstChild(node + 1); child++) {
+      prefix.append(label(child));
+      allWordsHelper(child, prefix, result);
+      prefix.setLength(prefix.length() - 1);
+    }
+  }
+
+  // Gets the node at the end of the input string, or -1 if there is no such node
+  private int getNode(String inputString) {
+    int node = 0;
+    for (int i = 0; i < inputString.length() && node != -1; i++) {
+      node = getChild(node, inputString.charAt(i));
+    }
+    return node;
+  }
+
+  // Binary searches the children of the node for the given character - -1 if there is no child
+  private int getChild(int node, char key) {
+    int low = firstChild(node);
+    int high = firstChild(node + 1) - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      char label = label(middle);
+      if (label < key) {
+        low = middle + 1;
+      } else if (label > key) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  // Builds the word ending at the node by walking up to the root
+  private String wordAt(int node) {
+    int length = 0;
+    for (int current = node; current != 0; current = parent(current)) {
+      length++;
+    }
+    char[] word = new char[length];
+    for (int current = node; current != 0; current = parent(current)) {
+      word[--length] = label(current);
+    }
+    return new String(word);
+  }
+
+  // Orders word nodes by popularity, ties in reverse alphabetical order - the same as predict in
+  // DictionaryTree
+  private int compare(int wordNode, int otherWordNode) {
+    int comparison = Integer.compare(popularity(otherWordNode), popularity(wordNode));
+    if (comparison == 0) {
+      comparison = Integer.compare(alphabeticalOrder(otherWordNode), alphabeticalOrder(wordNode));
+    }
+    return comparison;
+  }
+
+  // Entry in the queue of predict - either just the word ending at a node, or the whole subtree
+  // of the node
+  private final class SearchEntry implements Comparable<SearchEntry> {
+    private final int node;
+    private final boolean wordOnly;
+
+    SearchEntry(int node, boolean wordOnly) {
+      this.node = node;
+      this.wordOnly = wordOnly;
+    }
+
+    @Override
+    public int compareTo(SearchEntry other) {
+      return compare(wordOnly ? node : bestWord(node),
+          other.wordOnly ? other.node : bestWord(other.node));
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package trie;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only dictionary made by {@link DictionaryTree#freeze()}. Nodes are stored in parallel
+ * arrays rather than as objects, so the whole dictionary is only a handful of objects for the
+ * garbage collector, and the children of every node can be binary searched.
+ */
+public class FrozenDictionary extends FlatDictionary {
+
+  private final char[] labels;
+  private final int[] firstChild;
+  private final int[] parents;
+  private final int[] popularities;
+  // Bit i is set if node i is the end of a word
+  private final long[] wordEnds;
+  private final int[] alphabeticalOrder;
+  private final int[] bestWords;
+  private final int height;
+  private final int numLeaves;
+
+  /*
+   * The constructor - takes the nodes in breadth-first order and works out everything else
+   */
+  FrozenDictionary(char[] labels, int[] firstChild, int[] popularities, long[] wordEnds) {
+    this.labels = labels;
+    this.firstChild = firstChild;
+    this.popularities = popularities;
+    this.wordEnds = wordEnds;
+    int size = labels.length;
+
+    // Parents always come before their children, so depths can be worked out in one pass
+    parents = new int[size];
+    parents[0] = -1;
+    int[] depths = new int[size];
+    int maxDepth = 0;
+    int leaves = 0;
+    for (int node = 0; node < size; node++) {
+      if (firstChild[node] == firstChild[node + 1]) {
+        leaves++;
+      }
+      for (int child = firstChild[node]; child < firstChild[node + 1]; child++) {
+        parents[child] = node;
+        depths[child] = depths[node] + 1;
+        maxDepth = Math.max(maxDepth, depths[child]);
+      }
+    }
+    height = maxDepth;
+    numLeaves = leaves;
+
+    // Depth-first walk visiting children alphabetically gives the alphabetical order of the nodes
+    alphabeticalOrder = new int[size];
+    int[] stack = new int[size];
+    int stackSize = 0;
+    stack[stackSize++] = 0;
+    int position = 0;
+    while (stackSize > 0) {
+      int node = stack[--stackSize];
+      alphabeticalOrder[node] = position++;
+      for (int child = firstChild[node + 1] - 1; child >= firstChild[node]; child--) {
+        stack[stackSize++] = child;
+      }
+    }
+
+    // Children come after their parents, so going backwards every child is done before its parent
+    bestWords = new int[size];
+    for (int node = size - 1; node >= 0; node--) {
+      int best = isWord(node) ? node : -1;
+      for (int child = firstChild[node]; child < firstChild[node + 1]; child++) {
+        int childBest = bestWords[child];
+        if (childBest != -1 && (best == -1 || popularities[childBest] > popularities[best]
+            || (popularities[childBest] == popularities[best]
+                && alphabeticalOrder[childBest] > alphabeticalOrder[best]))) {
+          best = childBest;
+        }
+      }
+      bestWords[node] = best;
+    }
+  }
+
+  /**
+   * Writes this dictionary to a file in the format read by {@link MappedDictionary#open(Path)}.
+   * The file holds every array of this dictionary as it is, so opening it needs no parsing.
+   *
+   * @param path the file to write, which is replaced if it exists
+   * @throws IOException if there was a problem writing the file
+   */
+  public void write(Path path) throws IOException {
+    int size = size();
+    ByteBuffer buffer = ByteBuffer.allocate(MappedDictionary.fileSize(size))
+        .order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(MappedDictionary.MAGIC).putInt(MappedDictionary.VERSION).putInt(size)
+        .putInt(height).putInt(numLeaves);
+
+    buffer.position(MappedDictionary.HEADER);
+    buffer.asLongBuffer().put(wordEnds);
+    buffer.position(MappedDictionary.firstChildOffset(size));
+    buffer.asIntBuffer().put(firstChild);
+    buffer.position(MappedDictionary.intsOffset(size, MappedDictionary.PARENTS));
+    buffer.asIntBuffer().put(parents);
+    buffer.position(MappedDictionary.intsOffset(size, MappedDictionary.POPULARITIES));
+    buffer.asIntBuffer().put(popularities);
+    buffer.position(MappedDictionary.intsOffset(size, MappedDictionary.ALPHABETICAL_ORDER));
+    buffer.asIntBuffer().put(alphabeticalOrder);
+    buffer.position(MappedDictionary.intsOffset(size, MappedDictionary.BEST_WORDS));
+    buffer.asIntBuffer().put(bestWords);
+    buffer.position(MappedDictionary.labelsOffset(size));
+    buffer.asCharBuffer().put(labels);
+    buffer.rewind();
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+  }
+
+  @Override
+  char label(int node) {
+    return labels[node];
+  }
+
+  @Override
+  int firstChild(int node) {
+    return firstChild[node];
+  }
+
+  @Override
+  int parent(int node) {
+    return parents[node];
+  }
+
+  @Override
+  int popularity(int node) {
+    return popularities[node];
+  }
+
+  @Override
+  int alphabeticalOrder(int node) {
+    return alphabeticalOrder[node];
+  }
+
+  @Override
+  int bestWord(int node) {
+    return bestWords[node];
+  }
+
+  @Override
+  boolean isWord(int node) {
+    return (wordEnds[node >>> 6] & (1L << node)) != 0;
+  }
+
+  @Override
+  public int size() {
+    return labels.length;
+  }
+
+  @Override
+  public int height() {
+    return height;
+  }
+
+  @Override
+  public int numLeaves() {
+    return numLeaves;
+  }
+}
@@ -0,0 +1,78 @@
+package trie;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histogram of times with buckets getting wider as the times get longer - every power of 2 is
+// split into 8 buckets, so a bucket is never wider than 1/8 of the times in it. Times can be
+// recorded from several threads at once
+final class LatencyHistogram {
+  private static final int SUB_BUCKETS = 8;
+  private static final int SUB_BUCKET_BITS = 3;
+  // Times below SUB_BUCKETS get a bucket each, then each power of 2 from there up to 2^62
+  private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder total = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+
+  void record(long nanos) {
+    nanos = Math.max(0, nanos);
+    counts.incrementAndGet(bucket(nanos));
+    total.increment();
+    totalNanos.add(nanos);
+  }
+
+  long count() {
+    return total.sum();
+  }
+
+  long mean() {
+    long count = total.sum();
+    return count == 0 ? 0 : totalNanos.sum() / count;
+  }
+
+  // Gets the largest time of the bucket the given share of the times reaches
+  long percentile(double percentile) {
+    long count = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      count += counts.get(i);
+    }
+    long target = Math.max(1, (long) Math.ceil(percentile * count));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts.get(i);
+      if (count > 0 && seen >= target) {
+        return largestInBucket(i);
+      }
+    }
+    return 0;
+  }
+
+  void reset() {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts.set(i, 0);
+    }
+    total.reset();
+    totalNanos.reset();
+  }
+
+  // Gets the bucket of a time from its highest bit and the SUB_BUCKET_BITS bits after it
+  private static int bucket(long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (int) nanos;
+    }
+    int highestBit = 63 - Long.numberOfLeadingZeros(nanos);
+    int shift = highestBit - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) ((nanos >>> shift) & (SUB_BUCKETS - 1));
+  }
+
+  private static long largestInBucket(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long smallest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    return smallest + (1L << shift) - 1;
+  }
+}
@@ -0,0 +1,210 @@
+package trie;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends PREDICT requests to a {@link PredictionServer} as fast as it answers them, and reports the
+ * sustained requests per second and the latency of the requests. Every connection keeps a fixed
+ * amount of requests pipelined, sending a new one whenever an answer arrives, so the latency
+ * includes the time a request waits behind the ones sent before it.
+ *
+ * <pre>
+ * java trie.LoadGenerator host port prefixes [connections] [seconds] [depth] [n]
+ * </pre>
+ */
+public class LoadGenerator {
+
+  private final String host;
+  private final int port;
+  private final List<String> prefixes;
+
+  /**
+   * Makes a load generator sending the given prefixes (over and over) to a server.
+   *
+   * @param host the host of the server
+   * @param port the port of the server
+   * @param prefixes the prefixes to predict
+   */
+  public LoadGenerator(String host, int port, List<String> prefixes) {
+    if (prefixes.isEmpty()) {
+      throw new IllegalArgumentException("No prefixes to send");
+    }
+    this.host = host;
+    this.port = port;
+    this.prefixes = prefixes;
+  }
+
+  /**
+   * Sends requests over the given amount of connections for the given time, and waits for the
+   * answers to all of them.
+   *
+   * @param connections the amount of connections, each sending from a thread of its own
+   * @param seconds how long to keep sending requests
+   * @param depth how many requests each connection keeps waiting for an answer
+   * @param n the amount of words asked for in every request
+   * @return the results of the run
+   * @throws IOException if a connection failed
+   */
+  public Result run(int connections, double seconds, int depth, int n) throws IOException {
+    Result result = new Result(connections, depth);
+    long start = System.nanoTime();
+    long deadline = start + (long) (seconds * 1e9);
+    ExecutorService pool = PredictionServer.connectionExecutor();
+    List<Future<?>> futures = new ArrayList<Future<?>>();
+    try {
+      for (int i = 0; i < connections; i++) {
+        // Every connection starts at a different place in the prefixes
+        int first = (int) ((long) i * prefixes.size() / connections);
+        futures.add(pool.submit(() -> {
+          send(first, deadline, depth, n, result);
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while sending requests", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+    result.nanos = System.nanoTime() - start;
+    return result;
+  }
+
+  // Sends requests over one connection until the deadline, keeping depth of them pipelined
+  private void send(int first, long deadline, int depth, int n, Result result) throws IOException {
+    try (Socket socket = new Socket(host, port);
+        BufferedReader in = new BufferedReader(
+            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8), 1 << 16);
+        Writer out = new BufferedWriter(
+            new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), 1 << 16)) {
+      socket.setTcpNoDelay(true);
+      // Times the waiting requests were sent, oldest at head
+      long[] sent = new long[depth];
+      int head = 0;
+      int waiting = 0;
+      int next = first;
+
+      while (true) {
+        long now = System.nanoTime();
+        boolean sending = now < deadline;
+        if (sending) {
+          while (waiting < depth) {
+            out.write("PREDICT\t" + n + "\t" + prefixes.get(next) + "\n");
+            next = (next + 1) % prefixes.size();
+            sent[(head + waiting) % depth] = now;
+            waiting++;
+          }
+          out.flush();
+        } else if (waiting == 0) {
+          return;
+        }
+
+        String answer = in.readLine();
+        if (answer == null) {
+          throw new IOException("Server closed the connection");
+        }
+        result.latencies.record(System.nanoTime() - sent[head]);
+        if (!answer.startsWith("OK")) {
+          result.errors.increment();
+        }
+        head = (head + 1) % depth;
+        waiting--;
+      }
+    }
+  }
+
+  /**
+   * The results of a run: how many requests were answered, how long it took and how long the
+   * requests took.
+   */
+  public static final class Result {
+    private final int connections;
+    private final int depth;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private long nanos;
+
+    private Result(int connections, int depth) {
+      this.connections = connections;
+      this.depth = depth;
+    }
+
+    /**
+     * @return the amount of requests answered
+     */
+    public long requests() {
+      return latencies.count();
+    }
+
+    /**
+     * @return the amount of requests answered with an error
+     */
+    public long errors() {
+      return errors.sum();
+    }
+
+    /**
+     * @return the answered requests per second
+     */
+    public double requestsPerSecond() {
+      return requests() * 1e9 / Math.max(nanos, 1);
+    }
+
+    /**
+     * @param percentile the share of the requests, between 0 and 1
+     * @return the time in nanoseconds at most that share of the requests took, accurate to 1/8
+     */
+    public long percentileNanos(double percentile) {
+      return latencies.percentile(percentile);
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d requests (%d errors) in %.1f s over %d connections with %d pipelined: %.0f requests/s,"
+              + " p50 %.1f us, p99 %.1f us, p99.9 %.1f us",
+          requests(), errors(), nanos / 1e9, connections, depth, requestsPerSecond(),
+          percentileNanos(0.5) / 1e3, percentileNanos(0.99) / 1e3, percentileNanos(0.999) / 1e3);
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 3) {
+      System.err.println(
+          "Usage: LoadGenerator host port prefixes [connections] [seconds] [depth] [n]");
+      return;
+    }
+    List<String> prefixes = Files.readAllLines(new File(args[2]).toPath(), StandardCharsets.UTF_8);
+    int connections = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+    double seconds = args.length > 4 ? Double.parseDouble(args[4]) : 10;
+    int depth = args.length > 5 ? Integer.parseInt(args[5]) : 16;
+    int n = args.length > 6 ? Integer.parseInt(args[6]) : 5;
+
+    LoadGenerator generator = new LoadGenerator(args[0], Integer.parseInt(args[1]), prefixes);
+    System.out.println(generator.run(connections, seconds, depth, n));
+  }
+}
@@ -0,0 +1,166 @@
+package trie;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only dictionary answering queries straight from a memory-mapped file written by
+ * {@link FrozenDictionary#write(Path)}. Nothing is read or parsed when the file is opened - pages
+ * of the file are only loaded by the operating system when a query first touches them, so opening
+ * even a large dictionary is almost instant. The mapping is released once this object has been
+ * garbage collected.
+ *
+ * <p>
+ * The file is little-endian and laid out as a 32 byte header (the magic number, the format
+ * version, the number of nodes, the height and the number of leaves as ints), followed by the
+ * word end bits as longs, the firstChild offsets (one more than the number of nodes), the parents,
+ * popularities, alphabetical order and best words as ints, and finally the labels as chars. Files
+ * are limited to 2GB, the most a single mapping can hold.
+ */
+public class MappedDictionary extends FlatDictionary {
+
+  static final int MAGIC = 0x44547265; // "DTre"
+  static final int VERSION = 1;
+  // Size of the header, after which the word end bits start
+  static final int HEADER = 32;
+
+  // Order of the int sections after the firstChild offsets
+  static final int PARENTS = 0;
+  static final int POPULARITIES = 1;
+  static final int ALPHABETICAL_ORDER = 2;
+  static final int BEST_WORDS = 3;
+  private static final int INT_SECTIONS = 4;
+
+  private final MappedByteBuffer buffer;
+  private final int size;
+  private final int firstChildOffset;
+  private final int parentsOffset;
+  private final int popularitiesOffset;
+  private final int alphabeticalOrderOffset;
+  private final int bestWordsOffset;
+  private final int labelsOffset;
+
+  /*
+   * The constructor
+   */
+  private MappedDictionary(MappedByteBuffer buffer, int size) {
+    this.buffer = buffer;
+    this.size = size;
+    firstChildOffset = firstChildOffset(size);
+    parentsOffset = intsOffset(size, PARENTS);
+    popularitiesOffset = intsOffset(size, POPULARITIES);
+    alphabeticalOrderOffset = intsOffset(size, ALPHABETICAL_ORDER);
+    bestWordsOffset = intsOffset(size, BEST_WORDS);
+    labelsOffset = labelsOffset(size);
+  }
+
+  /**
+   * Maps a dictionary file written by {@link FrozenDictionary#write(Path)}.
+   *
+   * @param path the dictionary file
+   * @return the dictionary held in the file
+   * @throws IOException if the file can't be opened or isn't a dictionary file
+   */
+  public static MappedDictionary open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER || channel.size() > Integer.MAX_VALUE) {
+        throw new IOException(path + " is not a dictionary file");
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      if (buffer.getInt(0) != MAGIC) {
+        throw new IOException(path + " is not a dictionary file");
+      }
+      if (buffer.getInt(4) != VERSION) {
+        throw new IOException(path + " has unsupported version " + buffer.getInt(4));
+      }
+      int size = buffer.getInt(8);
+      if (size < 1 || channel.size() != fileLength(size)) {
+        throw new IOException(path + " is truncated or corrupt");
+      }
+      return new MappedDictionary(buffer, size);
+    }
+  }
+
+  // Offsets of the sections of a file holding the given number of nodes, after the word end bits
+  // which start at HEADER
+
+  static int firstChildOffset(int size) {
+    return HEADER + 8 * ((size + 63) / 64);
+  }
+
+  static int intsOffset(int size, int section) {
+    return firstChildOffset(size) + 4 * (size + 1) + 4 * size * section;
+  }
+
+  static int labelsOffset(int size) {
+    return intsOffset(size, INT_SECTIONS);
+  }
+
+  static int fileSize(int size) {
+    long fileSize = fileLength(size);
+    if (fileSize > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Too many nodes for one dictionary file: " + size);
+    }
+    return (int) fileSize;
+  }
+
+  private static long fileLength(int size) {
+    return HEADER + 8L * ((size + 63) / 64) + 4L * (size + 1) + 4L * size * INT_SECTIONS
+        + 2L * size;
+  }
+
+  @Override
+  char label(int node) {
+    return buffer.getChar(labelsOffset + 2 * node);
+  }
+
+  @Override
+  int firstChild(int node) {
+    return buffer.getInt(firstChildOffset + 4 * node);
+  }
+
+  @Override
+  int parent(int node) {
+    return buffer.getInt(parentsOffset + 4 * node);
+  }
+
+  @Override
+  int popularity(int node) {
+    return buffer.getInt(popularitiesOffset + 4 * node);
+  }
+
+  @Override
+  int alphabeticalOrder(int node) {
+    return buffer.getInt(alphabeticalOrderOffset + 4 * node);
+  }
+
+  @Override
+  int bestWord(int node) {
+    return buffer.getInt(bestWordsOffset + 4 * node);
+  }
+
+  @Override
+  boolean isWord(int node) {
+    return (buffer.getLong(HEADER + 8 * (node >>> 6)) & (1L << node)) != 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public int height() {
+    return buffer.getInt(12);
+  }
+
+  @Override
+  public int numLeaves() {
+    return buffer.getInt(16);
+  }
+}
@@ -0,0 +1,525 @@
+package trie;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * A dictionary like {@link DictionaryTree} that keeps its nodes in direct (off-heap) memory
+ * instead of in objects, so the garbage collector never has to look at them - the whole tree is
+ * a single ByteBuffer object however many words it has. Every node is a record of 6 ints: its
+ * first child, its next sibling (the children of a node are a list sorted by character), its
+ * parent, its character and whether it ends a word, its popularity and the most popular word at
+ * or below it. Words aren't stored as strings, they're built from the characters on the way up to
+ * the root when they're predicted.
+ *
+ * <p>
+ * {@link #close()} lets go of the memory, which the garbage collector frees along with the buffer
+ * object, after which the dictionary can't be used any more. Until then the memory counts towards
+ * the JVM's limit on direct memory (-XX:MaxDirectMemorySize), which makes the JVM collect garbage
+ * when it's reached. The buffer doubles in size when it runs out of nodes, up to about 89 million
+ * nodes (the 2GB a ByteBuffer can hold). Like DictionaryTree this class isn't thread-safe.
+ * Predictions are ranked the same way as {@link DictionaryTree#predict(String, int)}.
+ */
+public class OffHeapDictionaryTree implements Closeable {
+
+  // Fields of a node record, as byte offsets from the start of the record
+  private static final int FIRST_CHILD = 0;
+  private static final int NEXT_SIBLING = 4;
+  private static final int PARENT = 8;
+  private static final int LABEL = 12;
+  private static final int POPULARITY = 16;
+  private static final int BEST_WORD = 20;
+  private static final int NODE_BYTES = 24;
+  // Bit set in the LABEL field of nodes which are the end of a word, above the 16 bits of the char
+  private static final int WORD_BIT = 1 << 16;
+  private static final int MAX_NODES = Integer.MAX_VALUE / NODE_BYTES;
+  private static final int NONE = -1;
+  private static final int ROOT = 0;
+
+  private ByteBuffer nodes;
+  // Number of node records used so far, freed ones included
+  private int usedRecords;
+  // Freed records, linked through their NEXT_SIBLING field
+  private int freeList = NONE;
+  private int size;
+  private int wordCount;
+
+  /**
+   * Makes an empty dictionary with room for 1024 nodes before the memory has to grow.
+   */
+  public OffHeapDictionaryTree() {
+    this(1024);
+  }
+
+  /**
+   * Makes an empty dictionary with room for the given amount of nodes before the memory has to
+   * grow.
+   *
+   * @param initialNodes the amount of nodes to make room for
+   */
+  public OffHeapDictionaryTree(int initialNodes) {
+    if (initialNodes < 1 || initialNodes > MAX_NODES) {
+      throw new IllegalArgumentException("Can't make room for " + initialNodes + " nodes");
+    }
+    nodes = ByteBuffer.allocateDirect(initialNodes * NODE_BYTES).order(ByteOrder.nativeOrder());
+    newNode(NONE, (char) 0);
+  }
+
+  /**
+   * Loads words (lines) from the given file like {@link CLI#loadWords(File)}, giving every word
+   * minus its line number as its popularity.
+   *
+   * @param f the file from which the words will be loaded
+   * @return the dictionary with the words loaded from the given file
+   * @throws IOException if there was a problem opening/reading from the file
+   */
+  public static OffHeapDictionaryTree load(File f) throws IOException {
+    OffHeapDictionaryTree d = new OffHeapDictionaryTree();
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(new FileInputStream(f), StandardCharsets.UTF_8), 1 << 16)) {
+      String word;
+      int wordLine = -1;
+      while ((word = reader.readLine()) != null) {
+        d.insert(word, wordLine);
+        wordLine--;
+      }
+    } catch (IOException | RuntimeException e) {
+      d.close();
+      throw e;
+    }
+    return d;
+  }
+
+  /**
+   * Inserts the given word into this dictionary without a popularity.
+   *
+   * @param word the word to insert
+   */
+  public void insert(String word) {
+    insert(word, DictionaryTree.NO_POPULARITY);
+  }
+
+  /**
+   * Inserts the given word into this dictionary with the given popularity. If the word is already
+   * stored, its popularity is replaced. The empty word isn't stored, like in DictionaryTree.
+   *
+   * @param word the word to insert
+   * @param popularity the popularity of the inserted word
+   */
+  public void insert(String word, int popularity) {
+    checkOpen();
+    if (word.length() == 0) {
+      return;
+    }
+    int node = ROOT;
+    for (int i = 0; i < word.length(); i++) {
+      node = childOrNew(node, word.charAt(i));
+    }
+
+    boolean wasWord = isWord(node);
+    int oldPopularity = getInt(node, POPULARITY);
+    if (wasWord && oldPopularity == popularity) {
+      return;
+    }
+    putInt(node, LABEL, getInt(node, LABEL) | WORD_BIT);
+    putInt(node, POPULARITY, popularity);
+    if (!wasWord) {
+      wordCount++;
+    }
+
+    if (!wasWord || popularity > oldPopularity) {
+      promote(node);
+    } else {
+      demote(node, node);
+    }
+  }
+
+  /**
+   * Removes the specified word from this dictionary.
+   *
+   * @param word the word to remove
+   * @return true if the word was removed, false if it isn't stored in this dictionary
+   */
+  public boolean remove(String word) {
+    checkOpen();
+    int node = getNode(word);
+    if (node == NONE || !isWord(node)) {
+      return false;
+    }
+    putInt(node, LABEL, getInt(node, LABEL) & ~WORD_BIT);
+    putInt(node, POPULARITY, DictionaryTree.NO_POPULARITY);
+    wordCount--;
+
+    // Walk back up the word freeing the nodes which no longer lead to any word
+    int deepest = node;
+    while (deepest != ROOT && getInt(deepest, FIRST_CHILD) == NONE && !isWord(deepest)) {
+      int parentNode = getInt(deepest, PARENT);
+      unlink(parentNode, deepest);
+      freeNode(deepest);
+      deepest = parentNode;
+    }
+    demote(deepest, node);
+    return true;
+  }
+
+  /**
+   * Determines whether or not the specified word is in this dictionary.
+   *
+   * @param word the word whose presence will be checked
+   * @return true if the specified word is stored in this dictionary; false otherwise
+   */
+  public boolean contains(String word) {
+    checkOpen();
+    int node = getNode(word);
+    return node != NONE && isWord(node);
+  }
+
+  /**
+   * Gets the popularity of the specified word.
+   *
+   * @param word the word whose popularity will be returned
+   * @return the popularity of the word, or {@link DictionaryTree#NO_POPULARITY} if it has none or
+   *         isn't stored in this dictionary
+   */
+  public int popularity(String word) {
+    checkOpen();
+    int node = getNode(word);
+    return node != NONE && isWord(node) ? getInt(node, POPULARITY) : DictionaryTree.NO_POPULARITY;
+  }
+
+  /**
+   * Predicts the most popular word starting with the specified prefix.
+   *
+   * @param prefix the prefix of the word returned
+   * @return a word that starts with the given prefix, or an empty optional if no such word is
+   *         found.
+   */
+  public Optional<String> predict(String prefix) {
+    List<String> result = predict(prefix, 1);
+    return result.isEmpty() ? Optional.empty() : Optional.of(result.get(0));
+  }
+
+  /**
+   * Predicts the (at most) n most popular words based on the specified prefix. If no word with the
+   * specified prefix is found, an empty list is returned.
+   *
+   * @param prefix the prefix of the words found
+   * @param n the maximum amount of words returned
+   * @return the (at most) n most popular words with the specified prefix
+   */
+  public List<String> predict(String prefix, int n) {
+    checkOpen();
+    ArrayList<String> result = new ArrayList<String>();
+    int prefixNode = getNode(prefix);
+    if (prefixNode == NONE || getInt(prefixNode, BEST_WORD) == NONE) {
+      return result;
+    }
+
+    // Best-first search like DictionaryTree's - nodes are ranked by the best word below them, so a
+    // word coming out of the queue is better than anything still in it
+    PriorityQueue<SearchEntry> queue = new PriorityQueue<SearchEntry>();
+    queue.add(new SearchEntry(prefixNode, false));
+    while (result.size() < n && !queue.isEmpty()) {
+      SearchEntry entry = queue.poll();
+      if (entry.wordOnly) {
+        result.add(wordAt(entry.node));
+      } else {
+        if (isWord(entry.node)) {
+          queue.add(new SearchEntry(entry.node, true));
+        }
+        for (int child = getInt(entry.node, FIRST_CHILD); child != NONE;
+            child = getInt(child, NEXT_SIBLING)) {
+          if (getInt(child, BEST_WORD) != NONE) {
+            queue.add(new SearchEntry(child, false));
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return all words stored in this dictionary as a list, in alphabetical order
+   */
+  public List<String> allWords() {
+    checkOpen();
+    List<String> result = new ArrayList<String>();
+    allWordsHelper(ROOT, new StringBuilder(), result);
+    return result;
+  }
+
+  // Helper for allWords which adds the words at and below the node, using the prefix of the node
+  private void allWordsHelper(int node, StringBuilder prefix, List<String> result) {
+    if (isWord(node)) {
+      result.add(prefix.toString());
+    }
+    for (int child = getInt(node, FIRST_CHILD); child != NONE;
+        child = getInt(child, NEXT_SIBLING)) {
+      prefix.append(label(child));
+      allWordsHelper(child, prefix, result);
+      prefix.setLength(prefix.length() - 1);
+    }
+  }
+
+  /**
+   * @return the number of nodes in this dictionary, the same as {@link DictionaryTree#size()}
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the number of words stored in this dictionary
+   */
+  public int wordCount() {
+    return wordCount;
+  }
+
+  /**
+   * @return the amount of off-heap memory this dictionary holds, in bytes - 0 once it's closed
+   */
+  public long offHeapBytes() {
+    return nodes == null ? 0 : nodes.capacity();
+  }
+
+  /**
+   * Lets go of the memory of this dictionary, which is freed once the garbage collector finds the
+   * buffer holding it can't be reached anymore. Using the dictionary afterwards throws an
+   * IllegalStateException, and closing it again does nothing.
+   */
+  @Override
+  public void close() {
+    nodes = null;
+  }
+
+  private void checkOpen() {
+    if (nodes == null) {
+      throw new IllegalStateException("Dictionary is closed");
+    }
+  }
+
+  private int getInt(int node, int field) {
+    return nodes.getInt(node * NODE_BYTES + field);
+  }
+
+  private void putInt(int node, int field, int value) {
+    nodes.putInt(node * NODE_BYTES + field, value);
+  }
+
+  private char label(int node) {
+    return (char) getInt(node, LABEL);
+  }
+
+  private boolean isWord(int node) {
+    return (getInt(node, LABEL) & WORD_BIT) != 0;
+  }
+
+  // Gets the node at the end of the input string, or NONE if there is no such node
+  private int getNode(String inputString) {
+    int node = ROOT;
+    for (int i = 0; i < inputString.length() && node != NONE; i++) {
+      char key = inputString.charAt(i);
+      int child = getInt(node, FIRST_CHILD);
+      while (child != NONE && label(child) < key) {
+        child = getInt(child, NEXT_SIBLING);
+      }
+      node = child != NONE && label(child) == key ? child : NONE;
+    }
+    return node;
+  }
+
+  // Gets the child of the node for the character, adding it in its place in the sorted list of
+  // children if there isn't one
+  private int childOrNew(int node, char key) {
+    int previous = NONE;
+    int child = getInt(node, FIRST_CHILD);
+    while (child != NONE && label(child) < key) {
+      previous = child;
+      child = getInt(child, NEXT_SIBLING);
+    }
+    if (child != NONE && label(child) == key) {
+      return child;
+    }
+
+    int created = newNode(node, key);
+    putInt(created, NEXT_SIBLING, child);
+    if (previous == NONE) {
+      putInt(node, FIRST_CHILD, created);
+    } else {
+      putInt(previous, NEXT_SIBLING, created);
+    }
+    return created;
+  }
+
+  // Takes the child out of the node's list of children
+  private void unlink(int node, int child) {
+    int next = getInt(child, NEXT_SIBLING);
+    int current = getInt(node, FIRST_CHILD);
+    if (current == child) {
+      putInt(node, FIRST_CHILD, next);
+      return;
+    }
+    while (getInt(current, NEXT_SIBLING) != child) {
+      current = getInt(current, NEXT_SIBLING);
+    }
+    putInt(current, NEXT_SIBLING, next);
+  }
+
+  // Takes a record from the free list, or the next unused one (growing the buffer if it's full)
+  private int newNode(int parentNode, char key) {
+    int node;
+    if (freeList != NONE) {
+      node = freeList;
+      freeList = getInt(node, NEXT_SIBLING);
+    } else {
+      if ((usedRecords + 1) * (long) NODE_BYTES > nodes.capacity()) {
+        grow();
+      }
+      node = usedRecords++;
+    }
+    putInt(node, FIRST_CHILD, NONE);
+    putInt(node, NEXT_SIBLING, NONE);
+    putInt(node, PARENT, parentNode);
+    putInt(node, LABEL, key);
+    putInt(node, POPULARITY, DictionaryTree.NO_POPULARITY);
+    putInt(node, BEST_WORD, NONE);
+    size++;
+    return node;
+  }
+
+  private void freeNode(int node) {
+    putInt(node, NEXT_SIBLING, freeList);
+    freeList = node;
+    size--;
+  }
+
+  // Moves the nodes into a buffer twice as big. The old one is freed by the garbage collector
+  private void grow() {
+    int records = nodes.capacity() / NODE_BYTES;
+    if (records == MAX_NODES) {
+      throw new IllegalStateException("Dictionary can't have more than " + MAX_NODES + " nodes");
+    }
+    int newRecords = (int) Math.min((long) records * 2, MAX_NODES);
+    ByteBuffer grown =
+        ByteBuffer.allocateDirect(newRecords * NODE_BYTES).order(ByteOrder.nativeOrder());
+    ByteBuffer old = nodes;
+    old.clear();
+    grown.put(old);
+    nodes = grown;
+  }
+
+  // Makes the word node the best word of the nodes above it that it's now more popular than. A
+  // node whose best word is more popular has an even more popular (or the same) best word above
+  // it, so the walk stops there
+  private void promote(int wordNode) {
+    for (int node = wordNode; node != NONE; node = getInt(node, PARENT)) {
+      int best = getInt(node, BEST_WORD);
+      if (best != wordNode) {
+        if (best != NONE && compare(wordNode, best) >= 0) {
+          return;
+        }
+        putInt(node, BEST_WORD, wordNode);
+      }
+    }
+  }
+
+  // Works out the best word again for the node and the nodes above it whose best word was the
+  // given word node, after it became less popular or was removed
+  private void demote(int node, int wordNode) {
+    for (; node != NONE && getInt(node, BEST_WORD) == wordNode; node = getInt(node, PARENT)) {
+      int best = isWord(node) ? node : NONE;
+      for (int child = getInt(node, FIRST_CHILD); child != NONE;
+          child = getInt(child, NEXT_SIBLING)) {
+        int childBest = getInt(child, BEST_WORD);
+        if (childBest != NONE && (best == NONE || compare(childBest, best) < 0)) {
+          best = childBest;
+        }
+      }
+      putInt(node, BEST_WORD, best);
+    }
+  }
+
+  // Builds the word ending at the node by walking up to the root
+  private String wordAt(int node) {
+    int length = depth(node);
+    char[] word = new char[length];
+    for (int current = node; current != ROOT; current = getInt(current, PARENT)) {
+      word[--length] = label(current);
+    }
+    return new String(word);
+  }
+
+  // Number of characters between the root and the node
+  private int depth(int node) {
+    int depth = 0;
+    for (int current = node; current != ROOT; current = getInt(current, PARENT)) {
+      depth++;
+    }
+    return depth;
+  }
+
+  // Orders word nodes by popularity, ties in reverse alphabetical order - the same as predict in
+  // DictionaryTree
+  private int compare(int wordNode, int otherWordNode) {
+    int comparison =
+        Integer.compare(getInt(otherWordNode, POPULARITY), getInt(wordNode, POPULARITY));
+    if (comparison == 0 && wordNode != otherWordNode) {
+      comparison = compareWords(otherWordNode, wordNode);
+    }
+    return comparison;
+  }
+
+  // Compares the words ending at two nodes alphabetically in place, without building them: the
+  // deeper node is walked up to the depth of the other, and then both are walked up until they
+  // have the same parent, where their characters decide. If one of them was reached from the
+  // other, it's the shorter word and comes first
+  private int compareWords(int a, int b) {
+    int depthA = depth(a);
+    int depthB = depth(b);
+    int x = a;
+    int y = b;
+    for (int depth = depthA; depth > depthB; depth--) {
+      x = getInt(x, PARENT);
+    }
+    for (int depth = depthB; depth > depthA; depth--) {
+      y = getInt(y, PARENT);
+    }
+    if (x == y) {
+      return Integer.compare(depthA, depthB);
+    }
+    while (getInt(x, PARENT) != getInt(y, PARENT)) {
+      x = getInt(x, PARENT);
+      y = getInt(y, PARENT);
+    }
+    return Character.compare(label(x), label(y));
+  }
+
+  // Entry in the queue of predict - either just the word ending at a node, or the whole subtree
+  // of the node
+  private final class SearchEntry implements Comparable<SearchEntry> {
+    private final int node;
+    private final boolean wordOnly;
+
+    SearchEntry(int node, boolean wordOnly) {
+      this.node = node;
+      this.wordOnly = wordOnly;
+    }
+
+    @Override
+    public int compareTo(SearchEntry other) {
+      return compare(wordOnly ? node : getInt(node, BEST_WORD),
+          other.wordOnly ? other.node : getInt(other.node, BEST_WORD));
+    }
+  }
+}
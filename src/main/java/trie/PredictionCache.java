@@ -0,0 +1,161 @@
+package trie;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A cache of the results of {@link DictionaryTree#predict(String, int)}, for when the same short
+ * prefixes are predicted over and over. Once set on a tree with
+ * {@link DictionaryTree#setPredictionCache(PredictionCache)}, predictions are answered from the
+ * cache when possible, and inserting or removing a word only drops the results of the prefixes of
+ * that word, as those are the only predictions it can be part of. Removing every word with a prefix
+ * also drops the results of the longer prefixes starting with it.
+ *
+ * <p>
+ * The results are kept by prefix, with the longest list asked for so far, so a prediction of fewer
+ * words with the same prefix is answered from it too. When the cache is full the prefix used least
+ * recently is dropped. The cache can be used by several threads at once.
+ *
+ * <p>
+ * {@link DictionaryTree#recordSelection} can be called by many threads at once, so it doesn't drop
+ * predictions under the lock of the cache like insert and remove do. Every prefix instead has a
+ * stamp (one of STAMPS counters, picked by the hash of the prefix) which a selection increases for
+ * the prefixes of its word. Predictions are kept with the stamp their prefix had before they were
+ * worked out, and one whose stamp has changed since is treated as not kept.
+ */
+public class PredictionCache {
+
+  // Number of stamps the prefixes are spread over - prefixes sharing a stamp only cost each other
+  // a few more misses
+  private static final int STAMPS = 1024;
+
+  private final int capacity;
+  private final AtomicLongArray stamps = new AtomicLongArray(STAMPS);
+  private final LinkedHashMap<String, CachedPrediction> predictions;
+  private long hits;
+  private long misses;
+
+  /**
+   * Makes an empty cache.
+   *
+   * @param capacity the maximum amount of prefixes whose predictions are kept
+   * @throws IllegalArgumentException if the capacity isn't positive
+   */
+  public PredictionCache(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    // Keeps the prefixes in the order they were last used, least recently used first
+    this.predictions = new LinkedHashMap<String, CachedPrediction>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CachedPrediction> eldest) {
+        return size() > PredictionCache.this.capacity;
+      }
+    };
+  }
+
+  /**
+   * @return the number of predictions answered from this cache
+   */
+  public synchronized long hits() {
+    return hits;
+  }
+
+  /**
+   * @return the number of predictions which weren't in this cache
+   */
+  public synchronized long misses() {
+    return misses;
+  }
+
+  /**
+   * @return the number of prefixes whose predictions are kept
+   */
+  public synchronized int size() {
+    return predictions.size();
+  }
+
+  /**
+   * Drops every kept prediction. The hit and miss counts are kept.
+   */
+  public synchronized void clear() {
+    predictions.clear();
+  }
+
+  // Gets the (at most) n words predicted for the prefix, or null if they aren't kept
+  synchronized List<String> get(String prefix, int n) {
+    CachedPrediction prediction = predictions.get(prefix);
+    if (prediction != null && prediction.stamp != stamp(prefix)) {
+      // A selection may have changed the ranking since it was worked out
+      predictions.remove(prefix);
+      prediction = null;
+    }
+    // A list shorter than asked for is complete, as there weren't any more words
+    if (prediction == null || (prediction.n < n && prediction.words.size() == prediction.n)) {
+      misses++;
+      return null;
+    }
+    hits++;
+    return new ArrayList<String>(prediction.words.subList(0, Math.min(n, prediction.words.size())));
+  }
+
+  // Keeps the words predicted for the prefix, unless more of them are kept already. The stamp is
+  // the one the prefix had before the words were worked out
+  synchronized void put(String prefix, int n, List<String> words, long stamp) {
+    CachedPrediction prediction = predictions.get(prefix);
+    if (prediction == null || prediction.n < n || prediction.stamp != stamp) {
+      predictions.put(prefix, new CachedPrediction(n, new ArrayList<String>(words), stamp));
+    }
+  }
+
+  // Gets the current stamp of the prefix
+  long stamp(String prefix) {
+    return stamps.get(stampIndex(prefix));
+  }
+
+  // Makes the predictions of the prefixes of the given word stale without taking the lock, for
+  // recordSelection. They are dropped by the next get
+  void invalidateSelected(String word) {
+    for (int i = 0; i <= word.length(); i++) {
+      stamps.incrementAndGet(stampIndex(word.substring(0, i)));
+    }
+  }
+
+  private static int stampIndex(String prefix) {
+    int hash = prefix.hashCode();
+    return (hash ^ (hash >>> 16)) & (STAMPS - 1);
+  }
+
+  // Drops the predictions which the given word can be part of, i.e. those of its prefixes
+  synchronized void invalidate(String word) {
+    for (int i = 0; i <= word.length(); i++) {
+      predictions.remove(word.substring(0, i));
+    }
+  }
+
+  // Drops the predictions which words starting with the given prefix can be part of, i.e. those of
+  // the prefixes of the prefix and of every prefix starting with it
+  synchronized void invalidatePrefix(String prefix) {
+    invalidate(prefix);
+    predictions.keySet().removeIf(cachedPrefix -> cachedPrefix.startsWith(prefix));
+  }
+
+  // The words predicted for a prefix, how many were asked for and the stamp of the prefix
+  private static final class CachedPrediction {
+    private final int n;
+    private final List<String> words;
+    private final long stamp;
+
+    CachedPrediction(int n, List<String> words, long stamp) {
+      this.n = n;
+      this.words = words;
+      this.stamp = stamp;
+    }
+  }
+}
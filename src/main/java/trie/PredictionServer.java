@@ -0,0 +1,264 @@
+package trie;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves predictions from one shared {@link DictionaryTree} over a simple line protocol. Every
+ * request is one line of tab separated fields, and is answered with a line starting with OK or
+ * ERR:
+ *
+ * <pre>
+ * PREDICT  n  prefix     OK  word  word ...       (at most n words)
+ * CONTAINS  word         OK  true|false
+ * SELECT  word           OK  true|false           (see {@link DictionaryTree#recordSelection})
+ * BATCH  n  count        OK  count                followed by count lines of prefixes, each
+ *                                                 answered with a line of prefix  word  word ...
+ * </pre>
+ *
+ * A rejected BATCH still has its prefix lines read (and ignored), but one whose count can't be
+ * read closes the connection, as there's no telling where the next request starts.
+ *
+ * <p>
+ * Requests can be pipelined: a client can send many requests without waiting for the answers,
+ * which come back in the same order. Answers are only flushed once every request that has arrived
+ * is answered, so a pipelined connection sends them in large writes. Every connection is served by
+ * a thread of its own from a cached pool of platform threads, as the project is built for Java 17.
+ * Only when it's run on Java 21 or later does every connection get a virtual thread instead. The
+ * tree is only read (and has selections recorded), so it must not be changed in any other way
+ * while it's being served.
+ */
+public class PredictionServer implements Closeable {
+
+  // Most prefixes a single BATCH request is allowed to have
+  private static final int MAX_BATCH = 100000;
+  // Size of the buffers of every connection
+  private static final int BUFFER = 1 << 16;
+
+  private final DictionaryTree dictionary;
+  private final ServerSocket serverSocket;
+  private final ExecutorService connections;
+  private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+  private final Thread acceptor;
+
+  /**
+   * Makes a server listening on the given address and port, which serves connections once
+   * {@link #start()} is called.
+   *
+   * @param dictionary the dictionary predictions are made from
+   * @param address the address to listen on, e.g. InetAddress.getLoopbackAddress()
+   * @param port the port to listen on, or 0 for any free port
+   * @throws IOException if the port can't be listened on
+   */
+  public PredictionServer(DictionaryTree dictionary, InetAddress address, int port)
+      throws IOException {
+    this(dictionary, address, port, connectionExecutor());
+  }
+
+  // Serves every connection with a task on the given executor, which close() shuts down
+  PredictionServer(DictionaryTree dictionary, InetAddress address, int port,
+      ExecutorService connections) throws IOException {
+    this.dictionary = dictionary;
+    this.serverSocket = new ServerSocket(port, 128, address);
+    this.connections = connections;
+    this.acceptor = new Thread(this::acceptConnections, "prediction-server");
+  }
+
+  /**
+   * @return the port this server is listening on
+   */
+  public int port() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Starts accepting connections on a thread of its own.
+   */
+  public void start() {
+    acceptor.start();
+  }
+
+  /**
+   * Stops accepting connections and closes the open ones.
+   */
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+    for (Socket socket : openSockets) {
+      socket.close();
+    }
+    connections.shutdownNow();
+  }
+
+  // A cached pool of platform threads, which is what a Java 17 runtime gets. A Java 21 or later
+  // runtime gets one virtual thread per task instead, looked up by reflection as the project is
+  // built for Java 17
+  static ExecutorService connectionExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool();
+    }
+  }
+
+  // Accepts connections until the server socket is closed
+  private void acceptConnections() {
+    while (!serverSocket.isClosed()) {
+      try {
+        Socket socket = serverSocket.accept();
+        socket.setTcpNoDelay(true);
+        openSockets.add(socket);
+        connections.execute(() -> serve(socket));
+      } catch (IOException e) {
+        // Closed by close(), or the connection failed before it was accepted
+      }
+    }
+  }
+
+  // Answers the requests of one connection until the client closes it
+  private void serve(Socket socket) {
+    try (Socket s = socket;
+        BufferedReader in = new BufferedReader(
+            new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8), BUFFER);
+        Writer out = new BufferedWriter(
+            new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8), BUFFER)) {
+      String request;
+      while ((request = in.readLine()) != null) {
+        if (!answer(request, in, out)) {
+          out.flush();
+          return;
+        }
+        // Only flush once the requests that already arrived are answered
+        if (!in.ready()) {
+          out.flush();
+        }
+      }
+    } catch (SocketException e) {
+      // The connection was reset or closed by close()
+    } catch (IOException e) {
+      // Nothing can be answered on a broken connection
+    } finally {
+      openSockets.remove(socket);
+    }
+  }
+
+  // Writes the answer to one request. BATCH also reads its prefixes from in. Returns false if the
+  // connection has to be closed, as the next request can't be found
+  private boolean answer(String request, BufferedReader in, Writer out) throws IOException {
+    String[] fields = request.split("\t", -1);
+    try {
+      switch (fields[0]) {
+        case "PREDICT":
+          expectFields(fields, 3);
+          List<String> words = dictionary.predict(fields[2], count(fields[1]));
+          out.write("OK");
+          for (String word : words) {
+            out.write('\t');
+            out.write(word);
+          }
+          out.write('\n');
+          return true;
+        case "CONTAINS":
+          expectFields(fields, 2);
+          out.write("OK\t" + dictionary.contains(fields[1]) + "\n");
+          return true;
+        case "SELECT":
+          expectFields(fields, 2);
+          out.write("OK\t" + dictionary.recordSelection(fields[1]) + "\n");
+          return true;
+        case "BATCH":
+          return answerBatch(fields, in, out);
+        default:
+          throw new IllegalArgumentException("Unknown request " + fields[0]);
+      }
+    } catch (IllegalArgumentException e) {
+      out.write("ERR\t" + e.getMessage() + "\n");
+      return true;
+    }
+  }
+
+  // Reads the prefixes of a BATCH request and predicts them together. A rejected batch still has
+  // its prefixes read, so they aren't taken as requests - unless the amount of them can't be read,
+  // in which case false is returned to close the connection
+  private boolean answerBatch(String[] fields, BufferedReader in, Writer out) throws IOException {
+    int size;
+    try {
+      expectFields(fields, 3);
+      size = count(fields[2]);
+    } catch (IllegalArgumentException e) {
+      out.write("ERR\t" + e.getMessage() + "\n");
+      return false;
+    }
+
+    int n = 0;
+    String error = null;
+    try {
+      n = count(fields[1]);
+      if (size > MAX_BATCH) {
+        throw new IllegalArgumentException("At most " + MAX_BATCH + " prefixes in a batch");
+      }
+    } catch (IllegalArgumentException e) {
+      error = e.getMessage();
+    }
+
+    List<String> prefixes = new ArrayList<String>(error == null ? size : 0);
+    for (int i = 0; i < size; i++) {
+      String prefix = in.readLine();
+      if (prefix == null) {
+        throw new IOException("Connection closed in the middle of a batch");
+      }
+      if (error == null) {
+        prefixes.add(prefix);
+      }
+    }
+    if (error != null) {
+      out.write("ERR\t" + error + "\n");
+      return true;
+    }
+
+    List<List<String>> predictions = dictionary.predictAll(prefixes, n);
+    out.write("OK\t" + size + "\n");
+    for (int i = 0; i < size; i++) {
+      out.write(prefixes.get(i));
+      for (String word : predictions.get(i)) {
+        out.write('\t');
+        out.write(word);
+      }
+      out.write('\n');
+    }
+    return true;
+  }
+
+  private static void expectFields(String[] fields, int expected) {
+    if (fields.length != expected) {
+      throw new IllegalArgumentException(
+          fields[0] + " takes " + (expected - 1) + " fields, not " + (fields.length - 1));
+    }
+  }
+
+  // Parses a count field of a request, which can't be negative
+  private static int count(String field) {
+    int value = Integer.parseInt(field);
+    if (value < 0) {
+      throw new IllegalArgumentException("Negative count " + value);
+    }
+    return value;
+  }
+}
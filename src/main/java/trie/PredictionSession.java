@@ -0,0 +1,147 @@
+package trie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Predicts words for a prefix that is typed one character at a time. The session remembers the node
+ * of the tree at the end of every character typed so far, so typing a character or deleting the
+ * last one only moves one node down or up instead of walking down the whole prefix again, and
+ * predicting starts straight from the last node.
+ *
+ * <p>
+ * The tree can still be changed while the session is used - nodes of removed words are dropped and
+ * characters which didn't lead anywhere are looked up again the next time words are predicted.
+ */
+public class PredictionSession {
+
+  private final StringBuilder prefix = new StringBuilder();
+  // The node at the end of each of the first characters of the prefix, starting with the root for
+  // no characters - as many as lead to a node
+  private final ArrayList<DictionaryTree> path = new ArrayList<DictionaryTree>();
+  // How many subtrees had been taken out of the tree when the path was last checked
+  private int subtreesRemoved;
+
+  /**
+   * Starts a session with an empty prefix.
+   *
+   * @param dictionary the tree to predict words from
+   */
+  public PredictionSession(DictionaryTree dictionary) {
+    path.add(dictionary);
+    subtreesRemoved = dictionary.subtreesRemoved();
+  }
+
+  /**
+   * Adds a character to the end of the prefix.
+   *
+   * @param c the typed character
+   */
+  public void type(char c) {
+    // Only move down if every character before it led to a node
+    if (path.size() == prefix.length() + 1) {
+      DictionaryTree child = path.get(path.size() - 1).getChild(c);
+      if (child != null) {
+        path.add(child);
+      }
+    }
+    prefix.append(c);
+  }
+
+  /**
+   * Adds each character of the given text to the end of the prefix.
+   *
+   * @param text the typed characters
+   */
+  public void type(CharSequence text) {
+    for (int i = 0; i < text.length(); i++) {
+      type(text.charAt(i));
+    }
+  }
+
+  /**
+   * Removes the last character of the prefix.
+   *
+   * @return true if a character was removed; false if the prefix was already empty
+   */
+  public boolean backspace() {
+    if (prefix.length() == 0) {
+      return false;
+    }
+    if (path.size() == prefix.length() + 1) {
+      path.remove(path.size() - 1);
+    }
+    prefix.setLength(prefix.length() - 1);
+    return true;
+  }
+
+  /**
+   * Empties the prefix.
+   */
+  public void reset() {
+    prefix.setLength(0);
+    path.subList(1, path.size()).clear();
+  }
+
+  /**
+   * @return the prefix typed so far
+   */
+  public String prefix() {
+    return prefix.toString();
+  }
+
+  /**
+   * Predicts a single word based on the prefix typed so far
+   *
+   * @return a word that starts with the prefix, or an empty optional if no such word is found.
+   */
+  public Optional<String> predict() {
+    List<String> returnedList = predict(1);
+    if (returnedList.size() == 0) {
+      return Optional.empty();
+    } else {
+      return Optional.of(returnedList.get(0));
+    }
+  }
+
+  /**
+   * Predicts the (at most) n most popular words based on the prefix typed so far, ranked the same
+   * way as {@link DictionaryTree#predict(String, int)}.
+   *
+   * @param n the maximum amount of words returned
+   * @return the (at most) n most popular words with the prefix
+   */
+  public List<String> predict(int n) {
+    return DictionaryTree.predictBelow(cursor(), n);
+  }
+
+  // Gets the node at the end of the prefix, or null if there is none. Nodes which were removed from
+  // the tree since they were reached are dropped first (remove only takes out nodes without
+  // children, so the nodes below a removed one were removed too), and the characters which are left
+  // are looked up again as they might have been inserted since
+  private DictionaryTree cursor() {
+    DictionaryTree root = path.get(0);
+    if (root.subtreesRemoved() != subtreesRemoved) {
+      // A whole subtree was taken out, and the nodes in it still look like they are in the tree,
+      // so check the whole path once
+      subtreesRemoved = root.subtreesRemoved();
+      for (int i = 1; i < path.size(); i++) {
+        if (path.get(i - 1).getChild(prefix.charAt(i - 1)) != path.get(i)) {
+          path.subList(i, path.size()).clear();
+        }
+      }
+    }
+    while (path.size() > 1 && path.get(path.size() - 1).isRemoved()) {
+      path.remove(path.size() - 1);
+    }
+    while (path.size() < prefix.length() + 1) {
+      DictionaryTree child = path.get(path.size() - 1).getChild(prefix.charAt(path.size() - 1));
+      if (child == null) {
+        return null;
+      }
+      path.add(child);
+    }
+    return path.get(path.size() - 1);
+  }
+}
@@ -0,0 +1,430 @@
+package trie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * A dictionary with the same behaviour as {@link DictionaryTree}, but where every chain of nodes
+ * with a single child and no word ending at them is merged into one edge with a string label. Long
+ * word endings then take one node instead of one node per character. {@link #size()} still counts
+ * the nodes a {@link DictionaryTree} would have, and {@link #physicalSize()} the nodes actually
+ * stored.
+ */
+public class RadixDictionaryTree {
+
+  // Orders word nodes by popularity, ties in reverse alphabetical order - the same as DictionaryTree
+  private static int compare(Node wordNode, Node otherWordNode) {
+    int comparison = Integer.compare(otherWordNode.popularity, wordNode.popularity);
+    if (comparison == 0) {
+      comparison = otherWordNode.word.compareTo(wordNode.word);
+    }
+    return comparison;
+  }
+
+  private final Node root = new Node("", null);
+
+  /**
+   * Inserts the given word into this dictionary. If the word already exists, nothing will change.
+   *
+   * @param word the word to insert
+   */
+  public void insert(String word) {
+    insert(word, DictionaryTree.NO_POPULARITY);
+  }
+
+  /**
+   * Inserts the given word into this dictionary with the given popularity. If the word already
+   * exists, the popularity will be overriden by the given value.
+   *
+   * @param word the word to insert
+   * @param popularity the popularity of the inserted word, or
+   *        {@link DictionaryTree#NO_POPULARITY} for none
+   */
+  public void insert(String word, int popularity) {
+    if (word.length() == 0) {
+      return;
+    }
+
+    Node node = root;
+    int index = 0;
+    while (index < word.length()) {
+      Node child = node.getChild(word.charAt(index));
+      if (child == null) {
+        // Nothing shares the rest of the word, so it all goes on one new edge
+        child = new Node(word.substring(index), node);
+        node.putChild(child);
+        index = word.length();
+      } else {
+        int common = commonLength(child.label, word, index);
+        if (common < child.label.length()) {
+          // The word leaves the edge (or ends) part of the way along it, so split the edge there
+          child = child.split(common);
+        }
+        index += common;
+      }
+      node = child;
+    }
+
+    node.endOfWord = true;
+    node.word = word;
+    node.popularity = popularity;
+    node.refreshBestWords();
+  }
+
+  /**
+   * Removes the specified word from this dictionary.
+   *
+   * @param word the word to delete from this dictionary
+   * @return true if the word was in the dictionary and got removed, false otherwise
+   */
+  public boolean remove(String word) {
+    Node node = getNode(word, true);
+    if (node == null || !node.endOfWord) {
+      return false;
+    }
+
+    node.endOfWord = false;
+    node.word = null;
+    node.popularity = DictionaryTree.NO_POPULARITY;
+
+    Node refreshFrom = node;
+    if (node != root && node.childCount() == 0) {
+      Node parent = node.parent;
+      parent.removeChild(node);
+      refreshFrom = parent;
+      // The parent may now be a chain node which has to be merged with its only child
+      if (parent != root && !parent.endOfWord && parent.childCount() == 1) {
+        refreshFrom = parent.mergeWithChild();
+      }
+    } else if (node != root && node.childCount() == 1) {
+      refreshFrom = node.mergeWithChild();
+    }
+    refreshFrom.refreshBestWords();
+    return true;
+  }
+
+  /**
+   * Determines whether or not the specified word is in this dictionary.
+   *
+   * @param word the word whose presence will be checked
+   * @return true if the specified word is stored in this dictionary; false otherwise
+   */
+  public boolean contains(String word) {
+    Node node = getNode(word, true);
+    return node != null && node.endOfWord;
+  }
+
+  /**
+   * Gets the popularity of the specified word.
+   *
+   * @param word the word whose popularity will be returned
+   * @return the popularity of the word, or {@link DictionaryTree#NO_POPULARITY} if it has none or
+   *         isn't stored in this dictionary
+   */
+  public int popularity(String word) {
+    Node node = getNode(word, true);
+    return node != null && node.endOfWord ? node.popularity : DictionaryTree.NO_POPULARITY;
+  }
+
+  /**
+   * Predicts a single word based on the input prefix
+   *
+   * @param prefix the prefix of the word returned
+   * @return a word that starts with the given prefix, or an empty optional if no such word is
+   *         found.
+   */
+  public Optional<String> predict(String prefix) {
+    List<String> returnedList = predict(prefix, 1);
+    if (returnedList.size() == 0) {
+      return Optional.empty();
+    } else {
+      return Optional.of(returnedList.get(0));
+    }
+  }
+
+  /**
+   * Predicts the (at most) n most popular words based on the specified prefix. If no word with the
+   * specified prefix is found, an empty list is returned.
+   *
+   * @param prefix the prefix of the words found
+   * @param n the maximum amount of words returned
+   * @return the (at most) n most popular words with the specified prefix
+   */
+  public List<String> predict(String prefix, int n) {
+    ArrayList<String> result = new ArrayList<String>();
+    // The prefix may end part of the way along an edge - every word below that edge still has it
+    Node prefixNode = getNode(prefix, false);
+    if (prefixNode == null || prefixNode.bestWord == null) {
+      return result;
+    }
+
+    // Best-first search like DictionaryTree's - nodes are ranked by the best word below them, so a
+    // word coming out of the queue is better than anything still in it
+    PriorityQueue<SearchEntry> queue = new PriorityQueue<SearchEntry>();
+    queue.add(new SearchEntry(prefixNode, false));
+    while (result.size() < n && !queue.isEmpty()) {
+      SearchEntry entry = queue.poll();
+      if (entry.wordOnly) {
+        result.add(entry.node.word);
+      } else {
+        if (entry.node.endOfWord) {
+          queue.add(new SearchEntry(entry.node, true));
+        }
+        for (int i = 0; i < entry.node.childCount(); i++) {
+          if (entry.node.children[i].bestWord != null) {
+            queue.add(new SearchEntry(entry.node.children[i], false));
+          }
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * @return all words stored in this dictionary as a list, in alphabetical order
+   */
+  public List<String> allWords() {
+    List<String> result = new ArrayList<String>();
+    allWordsHelper(root, result);
+    return result;
+  }
+
+  // Helper for allWords which adds the words at and below the node
+  private static void allWordsHelper(Node node, List<String> result) {
+    if (node.endOfWord) {
+      result.add(node.word);
+    }
+    for (int i = 0; i < node.childCount(); i++) {
+      allWordsHelper(node.children[i], result);
+    }
+  }
+
+  /**
+   * @return the number of nodes a {@link DictionaryTree} holding the same words would have, i.e.
+   *         one for the root and one for every character on every edge
+   */
+  public int size() {
+    return sizeHelper(root, false);
+  }
+
+  /**
+   * @return the number of nodes actually stored, where each edge counts once however long its
+   *         label is
+   */
+  public int physicalSize() {
+    return sizeHelper(root, true);
+  }
+
+  // Helper for size and physicalSize which counts the nodes at and below the node
+  private static int sizeHelper(Node node, boolean physical) {
+    int size = physical || node.label.length() == 0 ? 1 : node.label.length();
+    for (int i = 0; i < node.childCount(); i++) {
+      size += sizeHelper(node.children[i], physical);
+    }
+    return size;
+  }
+
+  /**
+   * @return the number of leaves in this tree, i.e. the number of words which are not prefixes of
+   *         any other word.
+   */
+  public int numLeaves() {
+    return numLeavesHelper(root);
+  }
+
+  // Helper for numLeaves - a node without children is a leaf (including an empty root)
+  private static int numLeavesHelper(Node node) {
+    int leaves = node.childCount() == 0 ? 1 : 0;
+    for (int i = 0; i < node.childCount(); i++) {
+      leaves += numLeavesHelper(node.children[i]);
+    }
+    return leaves;
+  }
+
+  /**
+   * @return the maximum number of children held by any node in this tree - chains of nodes merged
+   *         into one edge only had one child each, so they never change the maximum
+   */
+  public int maximumBranching() {
+    return maximumBranchingHelper(root);
+  }
+
+  // Helper for maximumBranching which checks the node and everything below it
+  private static int maximumBranchingHelper(Node node) {
+    int maxBranch = node.childCount();
+    for (int i = 0; i < node.childCount(); i++) {
+      maxBranch = Math.max(maxBranch, maximumBranchingHelper(node.children[i]));
+    }
+    return maxBranch;
+  }
+
+  /**
+   * @return the height of this tree, i.e. the length of the longest branch
+   */
+  public int height() {
+    return longestWord().length();
+  }
+
+  /**
+   * @return the longest word in this tree - the alphabetically first one if there are several
+   */
+  public String longestWord() {
+    Node longest = longestHelper(root);
+    return longest == root ? "" : longest.word;
+  }
+
+  // Helper for longestWord which finds the deepest leaf at or below the node
+  private static Node longestHelper(Node node) {
+    Node longest = node;
+    for (int i = 0; i < node.childCount(); i++) {
+      Node candidate = longestHelper(node.children[i]);
+      if (longest == node || candidate.word.length() > longest.word.length()) {
+        longest = candidate;
+      }
+    }
+    return longest;
+  }
+
+  // Gets the node for the input string, or null if there is none. If the string ends part of the
+  // way along an edge, the node the edge leads to is returned unless an exact match is asked for
+  private Node getNode(String inputString, boolean exact) {
+    Node node = root;
+    int index = 0;
+    while (index < inputString.length()) {
+      node = node.getChild(inputString.charAt(index));
+      if (node == null) {
+        return null;
+      }
+      int common = commonLength(node.label, inputString, index);
+      if (common < node.label.length() && (exact || index + common < inputString.length())) {
+        return null;
+      }
+      index += common;
+    }
+    return node;
+  }
+
+  // Gets how many characters at the start of the label match the string from the given index
+  private static int commonLength(String label, String inputString, int index) {
+    int common = 0;
+    while (common < label.length() && index + common < inputString.length()
+        && label.charAt(common) == inputString.charAt(index + common)) {
+      common++;
+    }
+    return common;
+  }
+
+  // A node of the tree, reached from its parent by an edge with the node's label
+  private static final class Node {
+    private String label;
+    private Node parent;
+    // Sorted by the first character of each child's label, which keys holds
+    private char[] keys = new char[0];
+    private Node[] children = new Node[0];
+    private boolean endOfWord;
+    private String word;
+    private int popularity;
+    // The most popular word at or below this node, null if there are no words at or below it
+    private Node bestWord;
+
+    Node(String label, Node parent) {
+      this.label = label;
+      this.parent = parent;
+    }
+
+    private int childCount() {
+      return keys.length;
+    }
+
+    private Node getChild(char key) {
+      int index = Arrays.binarySearch(keys, key);
+      return index >= 0 ? children[index] : null;
+    }
+
+    private void putChild(Node child) {
+      int index = -Arrays.binarySearch(keys, child.label.charAt(0)) - 1;
+      char[] newKeys = new char[keys.length + 1];
+      Node[] newChildren = new Node[keys.length + 1];
+      System.arraycopy(keys, 0, newKeys, 0, index);
+      System.arraycopy(children, 0, newChildren, 0, index);
+      newKeys[index] = child.label.charAt(0);
+      newChildren[index] = child;
+      System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+      System.arraycopy(children, index, newChildren, index + 1, keys.length - index);
+      keys = newKeys;
+      children = newChildren;
+      child.parent = this;
+    }
+
+    private void removeChild(Node child) {
+      int index = Arrays.binarySearch(keys, child.label.charAt(0));
+      char[] newKeys = new char[keys.length - 1];
+      Node[] newChildren = new Node[keys.length - 1];
+      System.arraycopy(keys, 0, newKeys, 0, index);
+      System.arraycopy(children, 0, newChildren, 0, index);
+      System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+      System.arraycopy(children, index + 1, newChildren, index, keys.length - index - 1);
+      keys = newKeys;
+      children = newChildren;
+    }
+
+    // Splits the edge leading to this node after the given amount of characters, and returns the
+    // new node in the middle, which keeps the first part of the label
+    private Node split(int length) {
+      Node middle = new Node(label.substring(0, length), parent);
+      parent.children[Arrays.binarySearch(parent.keys, label.charAt(0))] = middle;
+      label = label.substring(length);
+      middle.putChild(this);
+      return middle;
+    }
+
+    // Merges this node, which has no word and a single child, into its child by joining the two
+    // labels. Returns the merged child
+    private Node mergeWithChild() {
+      Node child = children[0];
+      child.label = label + child.label;
+      child.parent = parent;
+      parent.children[Arrays.binarySearch(parent.keys, label.charAt(0))] = child;
+      return child;
+    }
+
+    // Recalculates the best word of this node and every node above it
+    private void refreshBestWords() {
+      for (Node node = this; node != null; node = node.parent) {
+        Node best = node.endOfWord ? node : null;
+        for (Node child : node.children) {
+          if (child.bestWord != null && (best == null || compare(child.bestWord, best) < 0)) {
+            best = child.bestWord;
+          }
+        }
+        node.bestWord = best;
+      }
+    }
+  }
+
+  // Entry in the queue of predict - either just the word ending at a node, or the whole subtree
+  // of the node
+  private static final class SearchEntry implements Comparable<SearchEntry> {
+    private final Node node;
+    private final boolean wordOnly;
+
+    SearchEntry(Node node, boolean wordOnly) {
+      this.node = node;
+      this.wordOnly = wordOnly;
+    }
+
+    // The most popular word this entry can give
+    private Node bestWord() {
+      return wordOnly ? node : node.bestWord;
+    }
+
+    @Override
+    public int compareTo(SearchEntry other) {
+      return compare(bestWord(), other.bestWord());
+    }
+  }
+}
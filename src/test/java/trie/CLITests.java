@@ -0,0 +1,131 @@
+package trie;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+public class CLITests {
+
+  @Test
+  public void loadWordsParallelLoadsTheSameDictionaryAsLoadWords() throws IOException {
+    File words = new File("word-popularity.txt");
+    DictionaryTree expected = CLI.loadWords(words);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    DictionaryTree unit;
+    try {
+      unit = CLI.loadWordsParallel(words, pool);
+    } finally {
+      pool.shutdown();
+    }
+
+    assertEquals(expected.size(), unit.size());
+    assertEquals(expected.numLeaves(), unit.numLeaves());
+    assertEquals(expected.height(), unit.height());
+    assertEquals(expected.maximumBranching(), unit.maximumBranching());
+    assertEquals(expected.longestWord(), unit.longestWord());
+    assertEquals(expected.allWords(), unit.allWords());
+    for (String word : expected.allWords()) {
+      assertEquals(expected.popularity(word), unit.popularity(word));
+    }
+    String[] prefixes = {"", "a", "th", "co", "qu", "zz"};
+    for (String prefix : prefixes) {
+      assertEquals(expected.predict(prefix, 10), unit.predict(prefix, 10));
+      assertEquals(expected.predict(prefix, 30), unit.predict(prefix, 30));
+    }
+  }
+
+  @Test
+  public void loadWordsParallelKeepsLineNumbersAcrossRepeatedAndEmptyLines() throws IOException {
+    Path file = Files.createTempFile("words", ".txt");
+    try {
+      Files.write(file, Arrays.asList("bat", "", "apple", "bat", "ant"), StandardCharsets.UTF_8);
+      DictionaryTree unit = CLI.loadWordsParallel(file.toFile());
+
+      assertEquals(-3, unit.popularity("apple"));
+      assertEquals(-4, unit.popularity("bat"));
+      assertEquals(-5, unit.popularity("ant"));
+      assertEquals(Arrays.asList("apple", "bat", "ant"), unit.predict("", 3));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void loadWordsParallelReadsLinesLikeLoadWords() throws IOException {
+    // Words sharing long prefixes, so the ranges part in the middle of words, with every kind of
+    // line ending and more chunks than lines for some of the pools
+    StringBuilder content = new StringBuilder();
+    String[] endings = {"\n", "\r\n", "\r", "\n\n"};
+    Random random = new Random(9);
+    for (int i = 0; i < 2000; i++) {
+      content.append("pre").append(Integer.toString(random.nextInt(3000), 7))
+          .append(endings[random.nextInt(endings.length)]);
+    }
+    content.append("last");
+    Path file = Files.createTempFile("words", ".txt");
+    try {
+      Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+      DictionaryTree expected = CLI.loadWords(file.toFile());
+      for (int threads : new int[] {1, 3, 64}) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+          DictionaryTree unit = CLI.loadWordsParallel(file.toFile(), pool);
+          assertEquals(expected.size(), unit.size());
+          assertEquals(expected.numLeaves(), unit.numLeaves());
+          assertEquals(expected.allWords(), unit.allWords());
+          for (String word : expected.allWords()) {
+            assertEquals(expected.popularity(word), unit.popularity(word));
+          }
+          assertEquals(expected.predict("pre1", 10), unit.predict("pre1", 10));
+        } finally {
+          pool.shutdown();
+        }
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void predictBatchKeepsThePrefixesInOrder() throws IOException {
+    DictionaryTree d = CLI.loadWords(new File("word-popularity.txt"));
+    List<String> words = d.allWords();
+    StringBuilder input = new StringBuilder();
+    StringBuilder expected = new StringBuilder();
+    Random random = new Random(23);
+    // Enough prefixes for several chunks, the last one not full
+    for (int i = 0; i < 10000; i++) {
+      String word = words.get(random.nextInt(words.size()));
+      String prefix = i % 100 == 0 ? "zzzq" : word.substring(0, random.nextInt(word.length() + 1));
+      input.append(prefix).append('\n');
+      expected.append(prefix);
+      for (String predicted : d.predict(prefix, 3)) {
+        expected.append('\t').append(predicted);
+      }
+      expected.append('\n');
+    }
+
+    StringWriter out = new StringWriter();
+    ByteArrayOutputStream report = new ByteArrayOutputStream();
+    long predicted = CLI.predictBatch(d, new BufferedReader(new StringReader(input.toString())),
+        out, 3, 4, new PrintStream(report, true, "UTF-8"));
+
+    assertEquals(10000, predicted);
+    assertEquals(expected.toString(), out.toString());
+    Assertions.assertTrue(report.toString("UTF-8").startsWith("Predicted 10000 prefixes in "));
+  }
+}
@@ -0,0 +1,143 @@
+package trie;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+public class ConcurrentDictionaryTreeTests {
+
+  @Test
+  public void insertRemoveAndPredictWorkLikeDictionaryTree() {
+    ConcurrentDictionaryTree unit = new ConcurrentDictionaryTree();
+    unit.insert("phone", 484);
+    unit.insert("photo", 247);
+    unit.insert("pile", 37);
+    unit.insert("test");
+    assertEquals(Arrays.asList("phone", "photo", "pile"), unit.predict("p", 5));
+    assertEquals("phone", unit.predict("ph").get());
+    assertEquals(247, unit.popularity("photo"));
+
+    Assertions.assertTrue(unit.remove("phone"));
+    Assertions.assertFalse(unit.remove("phone"));
+    Assertions.assertFalse(unit.remove("ph"));
+    Assertions.assertFalse(unit.contains("phone"));
+    Assertions.assertTrue(unit.contains("photo"));
+    assertEquals(Arrays.asList("photo", "pile", "test"), unit.allWords());
+  }
+
+  @Test
+  public void removingEveryWordLeavesAnEmptyTree() {
+    ConcurrentDictionaryTree unit = new ConcurrentDictionaryTree();
+    unit.insert("m");
+    unit.insert("mat");
+    Assertions.assertTrue(unit.remove("mat"));
+    Assertions.assertTrue(unit.remove("m"));
+    assertEquals(new ArrayList<String>(), unit.allWords());
+    assertEquals(new ArrayList<String>(), unit.predict("", 20));
+  }
+
+  @Test
+  public void concurrentWritersEndUpLikeSequentialWrites() throws Exception {
+    List<String> words = CLI.loadWords(new File("word-popularity.txt")).allWords().subList(0,
+        20000);
+    int writers = 4;
+    ConcurrentDictionaryTree unit = new ConcurrentDictionaryTree();
+    DictionaryTree expected = new DictionaryTree();
+    for (int i = 0; i < words.size(); i++) {
+      expected.insert(words.get(i), i % 1000);
+    }
+    // Every writer inserts its own words, changes their popularity, then removes some of them
+    for (int i = 0; i < words.size(); i += 3) {
+      expected.remove(words.get(i));
+    }
+
+    // Readers check that a word a writer has finished inserting (and won't remove) is always seen
+    // with its popularity, and that predictions are never missing or repeating words
+    AtomicInteger[] inserted = new AtomicInteger[writers];
+    AtomicBoolean done = new AtomicBoolean();
+    AtomicReference<String> failure = new AtomicReference<String>();
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int w = 0; w < writers; w++) {
+      int writer = w;
+      inserted[w] = new AtomicInteger(-1);
+      threads.add(new Thread(() -> {
+        for (int i = writer; i < words.size(); i += writers) {
+          unit.insert(words.get(i), -1);
+          unit.insert(words.get(i), i % 1000);
+          inserted[writer].set(i);
+        }
+        for (int i = writer; i < words.size(); i += writers) {
+          if (i % 3 == 0) {
+            unit.remove(words.get(i));
+          }
+        }
+      }));
+    }
+    for (int r = 0; r < 2; r++) {
+      threads.add(new Thread(() -> {
+        while (!done.get()) {
+          for (int w = 0; w < writers; w++) {
+            int i = inserted[w].get();
+            if (i >= 0 && i % 3 != 0 && unit.popularity(words.get(i)) != i % 1000) {
+              failure.compareAndSet(null, "missing " + words.get(i));
+            }
+          }
+          List<String> predicted = unit.predict("a", 15);
+          if (inserted[0].get() > 1000 && (predicted.size() != 15
+              || predicted.stream().distinct().count() != 15)) {
+            failure.compareAndSet(null, "broken prediction " + predicted);
+          }
+        }
+      }));
+    }
+
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (int w = 0; w < writers; w++) {
+      threads.get(w).join();
+    }
+    done.set(true);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(null, failure.get());
+    assertEquals(expected.allWords(), unit.allWords());
+    for (String prefix : Arrays.asList("", "a", "ab", "ac")) {
+      assertEquals(expected.predict(prefix, 30), unit.predict(prefix, 30));
+    }
+  }
+
+  @Test
+  public void concurrentInsertsOfTheSameWordsAreNotLost() throws Exception {
+    ConcurrentDictionaryTree unit = new ConcurrentDictionaryTree();
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int t = 0; t < 4; t++) {
+      int thread = t;
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < 2000; i++) {
+          // Every thread adds its own word under the same prefixes as the others
+          unit.insert("w" + i + "t" + thread, i);
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(8000, unit.allWords().size());
+    assertEquals(Arrays.asList("w1999t3", "w1999t2", "w1999t1", "w1999t0"),
+        unit.predict("w", 4));
+  }
+}
@@ -0,0 +1,81 @@
+package trie;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+public class DafsaDictionaryTests {
+
+  @Test
+  public void dafsaContainsAddedWords() {
+    DafsaDictionary unit = new DafsaDictionary.Builder().add("info", 0).add("information", 0)
+        .build();
+    Assertions.assertTrue(unit.contains("info"));
+    Assertions.assertTrue(unit.contains("information"));
+    Assertions.assertFalse(unit.contains("inform"));
+    Assertions.assertFalse(unit.contains(""));
+    assertEquals(2, unit.wordCount());
+  }
+
+  @Test
+  public void emptyDafsaIsJustTheStart() {
+    DafsaDictionary unit = new DafsaDictionary.Builder().build();
+    assertEquals(1, unit.size());
+    assertEquals(Optional.empty(), unit.predict(""));
+    assertEquals(new ArrayList<String>(), unit.allWords());
+  }
+
+  @Test
+  public void wordsMustBeAddedInOrder() {
+    DafsaDictionary.Builder builder = new DafsaDictionary.Builder().add("mat", 0);
+    Assertions.assertThrows(IllegalArgumentException.class, () -> builder.add("mad", 0));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> builder.add("mat", 0));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> builder.add("", 0));
+  }
+
+  @Test
+  public void sameEndingsAreShared() {
+    // A trie needs 13 nodes, but "-ing" is only stored once and "br" and "sw" both lead to it
+    DafsaDictionary unit = new DafsaDictionary.Builder().add("bring", 0).add("sing", 0)
+        .add("swing", 0).build();
+    assertEquals(Arrays.asList("bring", "sing", "swing"), unit.allWords());
+    assertEquals(7, unit.size());
+  }
+
+  @Test
+  public void sharedEndingsKeepTheirOwnPopularities() {
+    DafsaDictionary unit = new DafsaDictionary.Builder().add("bring", 3).add("sing", 7)
+        .add("swing", 5).build();
+    assertEquals(3, unit.popularity("bring"));
+    assertEquals(7, unit.popularity("sing"));
+    assertEquals(5, unit.popularity("swing"));
+    assertEquals(DictionaryTree.NO_POPULARITY, unit.popularity("ing"));
+    assertEquals(Arrays.asList("sing", "swing", "bring"), unit.predict("", 3));
+    assertEquals(Arrays.asList("sing", "swing"), unit.predict("s", 5));
+  }
+
+  @Test
+  public void predictMatchesDictionaryTree() throws IOException {
+    File f = new File("word-popularity.txt");
+    DictionaryTree tree = CLI.loadWords(f);
+    DafsaDictionary unit = DafsaDictionary.load(f);
+
+    assertEquals(tree.allWords(), unit.allWords());
+    for (String prefix : Arrays.asList("", "a", "th", "inf", "qu", "xyz", "zebra")) {
+      assertEquals(tree.predict(prefix, 25), unit.predict(prefix, 25));
+      assertEquals(tree.predict(prefix), unit.predict(prefix));
+    }
+    List<String> words = tree.allWords();
+    for (int i = 0; i < words.size(); i += 97) {
+      Assertions.assertTrue(unit.contains(words.get(i)));
+      assertEquals(tree.popularity(words.get(i)), unit.popularity(words.get(i)));
+    }
+    Assertions.assertTrue(unit.size() < tree.size());
+  }
+}
@@ -0,0 +1,110 @@
+package trie;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+public class DictionaryMetricsTests {
+
+  @Test
+  public void listenerIsToldAboutEveryOperation() {
+    DictionaryTree unit = new DictionaryTree();
+    List<DictionaryListener.Operation> operations = new ArrayList<DictionaryListener.Operation>();
+    List<Integer> visited = new ArrayList<Integer>();
+    unit.setListener(new DictionaryListener() {
+      @Override
+      public void completed(Operation operation, long nanos) {
+        operations.add(operation);
+      }
+
+      @Override
+      public void searched(int nodesVisited, int candidates) {
+        visited.add(nodesVisited);
+      }
+    });
+
+    unit.insert("cat", 3);
+    unit.insert("car");
+    unit.contains("cat");
+    unit.predict("ca");
+    unit.remove("car");
+    assertEquals(List.of(DictionaryListener.Operation.INSERT, DictionaryListener.Operation.INSERT,
+        DictionaryListener.Operation.CONTAINS, DictionaryListener.Operation.PREDICT,
+        DictionaryListener.Operation.REMOVE), operations);
+    // Walked down "ca" and read the list of the last node
+    assertEquals(List.of(3), visited);
+
+    unit.setListener(null);
+    unit.insert("dog");
+    assertEquals(5, operations.size());
+  }
+
+  @Test
+  public void metricsCountOperationsAndPredictionSearches() {
+    DictionaryTree unit = new DictionaryTree();
+    PredictionCache cache = new PredictionCache(10);
+    unit.setPredictionCache(cache);
+    DictionaryMetrics metrics = new DictionaryMetrics(cache);
+    unit.setListener(metrics);
+
+    for (int i = 0; i < 30; i++) {
+      unit.insert("word" + i, i);
+    }
+    unit.predict("word", 20);
+    unit.predict("word", 20);
+    unit.predict("x", 5);
+
+    assertEquals(30, metrics.count(DictionaryListener.Operation.INSERT));
+    assertEquals(3, metrics.count(DictionaryListener.Operation.PREDICT));
+    assertEquals(0, metrics.count(DictionaryListener.Operation.REMOVE));
+    assertEquals(1.0 / 3, metrics.getCacheHitRatio(), 1e-9);
+    Assertions.assertTrue(metrics.getAverageCandidates() > 20 / 3.0);
+    Assertions.assertTrue(metrics.percentileNanos(DictionaryListener.Operation.INSERT, 0.5) > 0);
+    Assertions.assertTrue(metrics.percentileNanos(DictionaryListener.Operation.INSERT, 0.5)
+        <= metrics.percentileNanos(DictionaryListener.Operation.INSERT, 0.99));
+
+    metrics.reset();
+    assertEquals(0, metrics.count(DictionaryListener.Operation.INSERT));
+    assertEquals(0, metrics.percentileNanos(DictionaryListener.Operation.INSERT, 0.5));
+    assertEquals(0.0, metrics.getCacheHitRatio());
+    assertEquals(Double.NaN, new DictionaryMetrics().getCacheHitRatio());
+  }
+
+  @Test
+  public void percentilesAreWithinAnEighth() {
+    DictionaryMetrics unit = new DictionaryMetrics();
+    for (long nanos = 1; nanos <= 1000; nanos++) {
+      unit.completed(DictionaryListener.Operation.CONTAINS, nanos * 1000);
+    }
+    long median = unit.percentileNanos(DictionaryListener.Operation.CONTAINS, 0.5);
+    long p99 = unit.percentileNanos(DictionaryListener.Operation.CONTAINS, 0.99);
+    Assertions.assertTrue(median >= 500000 && median <= 500000 * 9 / 8, "median " + median);
+    Assertions.assertTrue(p99 >= 990000 && p99 <= 990000 * 9 / 8, "p99 " + p99);
+    assertEquals(500500, unit.getMeanNanos().get("CONTAINS"));
+  }
+
+  @Test
+  public void metricsCanBeReadThroughJmx() throws JMException {
+    DictionaryMetrics metrics = new DictionaryMetrics();
+    ObjectName name = metrics.register("metricsCanBeReadThroughJmx");
+    try {
+      metrics.completed(DictionaryListener.Operation.REMOVE, 100);
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      // Maps are seen as tables through JMX
+      TabularData counts = (TabularData) server.getAttribute(name, "Counts");
+      assertEquals(1L, counts.get(new Object[] {"REMOVE"}).get("value"));
+      assertEquals(0.0, server.getAttribute(name, "AverageNodesVisited"));
+      Assertions.assertThrows(JMException.class,
+          () -> metrics.register("metricsCanBeReadThroughJmx"));
+    } finally {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+    }
+  }
+}
@@ -0,0 +1,918 @@
+package trie;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+public class DictionaryTreeTests {
+
+  @Test
+  public void treeContainsWordAferInsertion() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("example");
+    Assertions.assertTrue(unit.contains("example"));
+  }
+
+  @Test
+  public void numLeavesReturnsOneIfNoWordsInserted() {
+    DictionaryTree unit = new DictionaryTree();
+    assertEquals(1, unit.numLeaves());
+  }
+
+  @Test
+  public void heightOfRootShouldBeZero() {
+    DictionaryTree unit = new DictionaryTree();
+    Assertions.assertEquals(0, unit.height());
+  }
+
+  @Test
+  public void heightOfWordShouldBeWordLength() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("word", 0);
+    Assertions.assertEquals("word".length(), unit.height());
+  }
+
+  @Test
+  public void sizeShouldBeAmountOfCharactersAndRootAfterOneInsertion() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("word");
+    Assertions.assertEquals(5, unit.size());
+  }
+
+  @Test
+  public void sizeReturnsCorrectAmountOfNodesAfterMultipleInsertions() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("word");
+    unit.insert("wors");
+    unit.insert("wtty");
+    unit.insert("r");
+    unit.insert("test");
+    Assertions.assertEquals(14, unit.size());
+  }
+
+  @Test
+  public void sizeReturnsRootNodeWhenNoWordsInserted() {
+    DictionaryTree unit = new DictionaryTree();
+    Assertions.assertEquals(1, unit.size());
+  }
+
+  @Test
+  public void noOfLeavesShouldBeOneAfterSingleWordInsertion() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("word");
+    Assertions.assertEquals(1, unit.numLeaves());
+  }
+
+  @Test
+  public void noOfLeavesShouldBeTwoAfterSecondWordInsertionWithCommonLetters() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("word");
+    unit.insert("worg");
+    Assertions.assertEquals(2, unit.numLeaves());
+  }
+
+  @Test
+  public void maximumBranchingShouldBeOneAfterSingleWordInsertion() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("word");
+    Assertions.assertEquals(1, unit.maximumBranching());
+  }
+
+  @Test
+  public void maximumBranchingShouldBeTwoAfterSecondWordInsertionWithCommonLetters() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("word");
+    unit.insert("wdrd");
+    Assertions.assertEquals(2, unit.maximumBranching());
+  }
+
+  @Test
+  public void longestWordReturnsTheLongestWord() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("a");
+    unit.insert("dec");
+    unit.insert("feaddad");
+    unit.insert("afaccafa");
+    unit.insert("kpnifanifwa");
+    unit.insert("kpnfiwfndid");
+    unit.insert("dawbdwab");
+    unit.insert("dd");
+    unit.insert("dwadda");
+    unit.insert("dwaddsasawddawda");
+    Assertions.assertEquals("dwaddsasawddawda", unit.longestWord());
+  }
+
+  @Test
+  public void allWordsReturnsAllInsertedWords() {
+    DictionaryTree unit = new DictionaryTree();
+    List<String> insertedWords = new ArrayList<String>();
+    insertedWords.add("a");
+    insertedWords.add("aawdwda");
+    insertedWords.add("aad");
+    insertedWords.add("fawfnifane");
+    insertedWords.add("mfiawnfuawb");
+    insertedWords.add("awffwa");
+    insertedWords.add("bd");
+    insertedWords.add("ndiawnida");
+    insertedWords.add("nfiawnfawin");
+    insertedWords.add("dnwiadnwinwandiwdani");
+    insertedWords.add("dnwiadnwi");
+
+    // Insert words from arraylist
+    for (String s : insertedWords) {
+      unit.insert(s);
+    }
+
+    // Take all words from dictionary
+    List<String> extractedWords = unit.allWords();
+
+    // See how many of the words from the original arraylist are in the DictionaryTree
+    int dictContainsWord = 0;
+    for (String s : insertedWords) {
+      if (extractedWords.contains(s)) {
+        dictContainsWord++;
+      }
+    }
+
+    Assertions.assertEquals(dictContainsWord, extractedWords.size());
+  }
+
+  @Test
+  public void predictReturnsEmptyIfPrefixNotPartOfAnyWord() {
+    DictionaryTree unit = new DictionaryTree();
+    assertEquals(Optional.empty(), unit.predict("word"));
+  }
+
+  @Test
+  public void predictReturnsAPredictedWord() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("information");
+    assertEquals(Optional.of("information"), unit.predict("info"));
+  }
+
+  @Test
+  public void predictCanReturnItself() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("information");
+    assertEquals(Optional.of("information"), unit.predict("information"));
+  }
+
+  @Test
+  public void removeRemovesSingleWord() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("word");
+    unit.remove("word");
+    Assertions.assertFalse(unit.contains("word"));
+  }
+
+  @Test
+  public void removeReturnsTrueIfWordCanBeRemoved() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("word");
+    Assertions.assertTrue(unit.remove("word"));
+  }
+
+  @Test
+  public void removeReturnsFalseIfWordCantBeRemoved() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("word");
+    Assertions.assertFalse(unit.remove("worddwa"));
+  }
+
+  @Test
+  public void removeRemovesWordThatsPartOfAnotherWordWithoutRemovingTheOtherWord() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("info");
+    unit.insert("information");
+    unit.remove("info");
+    Assertions.assertTrue(unit.contains("information"));
+    Assertions.assertFalse(unit.contains("info"));
+  }
+
+  @Test
+  public void removeRemovesEndOfWordLeavingAnyPreviousWords() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("info");
+    unit.insert("information");
+    unit.remove("information");
+    Assertions.assertTrue(unit.contains("info"));
+  }
+
+  @Test
+  public void sizeWordsAsIntendedAfterWordRemoved() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("information");
+    unit.remove("information");
+    assertEquals(1, unit.size());
+  }
+
+  @Test
+  public void predictWithPopularityReturnsObjectsAccordingToPopularity() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("phone", 484);
+    unit.insert("photo", 247);
+    unit.insert("pile", 37);
+    unit.insert("test");
+    unit.insert("phones", 8);
+    unit.insert("physical", 4);
+    unit.insert("photos", 90);
+
+    ArrayList<String> predictedWords = (ArrayList<String>) unit.predict("ph", 5);
+    ArrayList<String> correctList = new ArrayList<String>();
+    correctList.add("phone");
+    correctList.add("photo");
+    correctList.add("photos");
+    correctList.add("phones");
+    correctList.add("physical");
+
+    assertEquals(correctList, predictedWords);
+  }
+  
+  @Test
+  public void predictOnlyReturnsAllPossibleWords() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("phone", 484);
+    unit.insert("photo", 247);
+    unit.insert("pile", 37);
+    unit.insert("test");
+    unit.insert("phones", 8);
+    unit.insert("physical", 4);
+    unit.insert("photos", 90);
+    
+    // n specified to be 10 which is much more than the possible amount
+    ArrayList<String> predictedWords = (ArrayList<String>) unit.predict("ph", 10);
+    ArrayList<String> correctList = new ArrayList<String>();
+    correctList.add("phone");
+    correctList.add("photo");
+    correctList.add("photos");
+    correctList.add("phones");
+    correctList.add("physical");
+    
+    assertEquals(correctList, predictedWords);
+  }
+  
+
+  @Test
+  public void predictReturnsEmptyListIfNoWordFound() {
+    DictionaryTree unit = new DictionaryTree();
+    ArrayList<String> emptyArrayList = new ArrayList<String>();
+    assertEquals(emptyArrayList, unit.predict("word", 4));
+  }
+
+  @Test
+  public void insertOverridesPopularity() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("word", 10);
+    unit.insert("wor", 5);
+    unit.insert("word", 1);
+
+    ArrayList<String> correctList = new ArrayList<String>();
+    correctList.add("wor");
+    correctList.add("word");
+
+    assertEquals(correctList, unit.predict("wo", 2));
+  }
+
+  @Test
+  public void removeCorrectlyRemovesOneLetterWords() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("m");
+    unit.insert("mat");
+    unit.insert("mad");
+    unit.remove("m");
+    Assertions.assertEquals(false, unit.contains("m"));
+    Assertions.assertEquals(true, unit.contains("mat"));
+    Assertions.assertEquals(true, unit.contains("mad"));
+  }
+
+
+  @Test
+  public void removeCorrectlyRemovesLastLetterOfAWord() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("word");
+    unit.insert("word1");
+    unit.remove("word1");
+    Assertions.assertEquals(5, unit.size());
+  }
+
+  @Test
+  public void predictOrdersWordsWithEqualPopularityInReverseAlphabeticalOrder() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("cab", 3);
+    unit.insert("cat", 3);
+    unit.insert("car");
+    unit.insert("cap");
+
+    List<String> correctList = new ArrayList<String>();
+    correctList.add("cat");
+    correctList.add("cab");
+    correctList.add("car");
+    correctList.add("cap");
+
+    assertEquals(correctList, unit.predict("ca", 4));
+  }
+
+  @Test
+  public void predictReturnsMoreWordsThanAreKeptAtEachNode() {
+    DictionaryTree unit = new DictionaryTree();
+    List<String> correctList = new ArrayList<String>();
+    for (int i = 0; i < 30; i++) {
+      unit.insert("word" + (char) ('a' + i), 100 - i);
+      correctList.add("word" + (char) ('a' + i));
+    }
+
+    assertEquals(correctList.subList(0, 25), unit.predict("wo", 25));
+    assertEquals(correctList.subList(0, 3), unit.predict("wo", 3));
+  }
+
+  @Test
+  public void predictIncludesPrefixWithNegativePopularity() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("the", -1);
+    unit.insert("there", -2);
+
+    List<String> correctList = new ArrayList<String>();
+    correctList.add("the");
+    correctList.add("there");
+
+    assertEquals(correctList, unit.predict("the", 5));
+  }
+
+  @Test
+  public void predictReflectsLoweredPopularity() {
+    DictionaryTree unit = new DictionaryTree();
+    for (int i = 0; i < 12; i++) {
+      unit.insert("a" + (char) ('a' + i), 50 + i);
+    }
+    unit.insert("al", 1);
+
+    assertEquals(Optional.of("ak"), unit.predict("a"));
+    assertEquals(false, unit.predict("a", 10).contains("al"));
+    assertEquals(true, unit.predict("a", 12).contains("al"));
+  }
+
+  @Test
+  public void predictDoesNotReturnRemovedWords() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("phone", 484);
+    unit.insert("phones", 8);
+    unit.remove("phone");
+
+    List<String> correctList = new ArrayList<String>();
+    correctList.add("phones");
+
+    assertEquals(correctList, unit.predict("ph", 3));
+  }
+
+  @Test
+  public void predictKeepsOrderWhenMoreWordsThanKeptAtEachNodeAreAskedFor() {
+    DictionaryTree unit = new DictionaryTree();
+    String[] words = {"b", "ba", "bab", "babe", "babes", "back", "backs", "bad", "badge", "bag",
+        "bags", "bake", "baker", "bakers", "ball", "balls", "bat", "bath", "baths", "bats"};
+    for (int i = 0; i < words.length; i++) {
+      // Every third word has no popularity, the rest share a few popularities
+      unit.insert(words[i], i % 3 == 0 ? 0 : (i % 4) - 2);
+    }
+
+    List<String> correctList = new ArrayList<String>();
+    correctList.add("bats");
+    correctList.add("bake");
+    correctList.add("bad");
+    correctList.add("baths");
+    correctList.add("balls");
+    correctList.add("ball");
+    correctList.add("baker");
+    correctList.add("bags");
+    correctList.add("bag");
+    correctList.add("backs");
+    correctList.add("babe");
+    correctList.add("bab");
+    correctList.add("b");
+    correctList.add("bath");
+    correctList.add("bakers");
+
+    assertEquals(correctList, unit.predict("b", 15));
+  }
+
+  @Test
+  public void removeOnlyRemovesNodesOfTheRemovedWord() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("cat");
+    unit.insert("dog");
+    unit.insert("m");
+    unit.insert("mat");
+    unit.insert("mad");
+    unit.remove("cat");
+    unit.remove("mat");
+    Assertions.assertEquals(false, unit.contains("cat"));
+    Assertions.assertEquals(false, unit.contains("mat"));
+    Assertions.assertEquals(true, unit.contains("dog"));
+    Assertions.assertEquals(true, unit.contains("m"));
+    Assertions.assertEquals(true, unit.contains("mad"));
+    Assertions.assertEquals(7, unit.size());
+  }
+
+  @Test
+  public void containsAndInsertingExistingWordsDoNotAllocate() throws IOException {
+    DictionaryTree unit = CLI.loadWords(new File("word-popularity.txt"));
+    String[] words = Files.readAllLines(new File("word-popularity.txt").toPath(),
+        StandardCharsets.UTF_8).toArray(new String[0]);
+
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    // Measure what reading the allocation counter costs by itself first
+    long start = threads.getThreadAllocatedBytes(threadId);
+    long counterCost = threads.getThreadAllocatedBytes(threadId) - start;
+
+    // A few passes before measuring, so anything allocated by loading classes and compiling the
+    // code isn't counted
+    for (int pass = 0; pass < 3; pass++) {
+      containsAndReinsertAll(unit, words);
+    }
+    start = threads.getThreadAllocatedBytes(threadId);
+    containsAndReinsertAll(unit, words);
+    long allocated = threads.getThreadAllocatedBytes(threadId) - start;
+
+    // A single allocation per word would be at least words.length bytes, while JIT and TLAB
+    // accounting noise stays far below that
+    Assertions.assertTrue(allocated - counterCost < words.length,
+        "Allocated " + (allocated - counterCost) + " bytes for " + words.length + " words");
+  }
+
+  // Checks every word is contained and inserts it again with the popularity CLI.loadWords gave it
+  private static void containsAndReinsertAll(DictionaryTree unit, String[] words) {
+    for (int i = 0; i < words.length; i++) {
+      Assertions.assertTrue(unit.contains(words[i]));
+      unit.insert(words[i], -(i + 1));
+    }
+  }
+
+  @Test
+  public void childrenCanBeAddedAndRemovedInAnyAmount() {
+    DictionaryTree unit = new DictionaryTree();
+    // Enough children for every layout, including characters too far apart to be kept densely
+    String keys = "zyxwvutsrqponmlkjihgfedcba'\u00e9\u4e00";
+    for (int i = 0; i < keys.length(); i++) {
+      unit.insert("x" + keys.charAt(i));
+    }
+    Assertions.assertEquals(keys.length(), unit.maximumBranching());
+    for (int i = 0; i < keys.length(); i++) {
+      Assertions.assertTrue(unit.contains("x" + keys.charAt(i)));
+    }
+
+    for (int i = 0; i < keys.length() - 1; i++) {
+      Assertions.assertTrue(unit.remove("x" + keys.charAt(i)));
+      Assertions.assertFalse(unit.contains("x" + keys.charAt(i)));
+      Assertions.assertEquals(keys.length() - i - 1, unit.maximumBranching());
+      Assertions.assertEquals(keys.length() - i + 1, unit.size());
+    }
+    Assertions.assertTrue(unit.contains("x\u4e00"));
+  }
+
+  @Test
+  public void allWordsReturnsWordsInAlphabeticalOrder() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("mad");
+    unit.insert("cat");
+    unit.insert("m");
+    unit.insert("mat");
+    unit.insert("ma");
+
+    List<String> correctList = new ArrayList<String>();
+    correctList.add("cat");
+    correctList.add("m");
+    correctList.add("ma");
+    correctList.add("mad");
+    correctList.add("mat");
+
+    assertEquals(correctList, unit.allWords());
+  }
+
+  @Test
+  public void popularityReturnsInsertedPopularity() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("word", -200);
+    unit.insert("wordy");
+    Assertions.assertEquals(-200, unit.popularity("word"));
+    Assertions.assertEquals(DictionaryTree.NO_POPULARITY, unit.popularity("wordy"));
+    Assertions.assertEquals(DictionaryTree.NO_POPULARITY, unit.popularity("wor"));
+    Assertions.assertEquals(Optional.of(-200), unit.getPopularity("word"));
+    Assertions.assertEquals(Optional.empty(), unit.getPopularity("wordy"));
+  }
+
+  @Test
+  public void insertingWithZeroPopularityRemovesThePopularity() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("word", 12);
+    unit.insert("word", 0);
+    Assertions.assertEquals(Optional.empty(), unit.getPopularity("word"));
+  }
+
+  @Test
+  public void foldCountsNodesAndLeaves() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("cat");
+    unit.insert("mat");
+    unit.insert("mad");
+    unit.insert("m");
+    int nodes = unit.fold((tree, cResults) -> 1 + sum(cResults));
+    int leaves = unit.fold((tree, cResults) -> cResults.isEmpty() ? 1 : sum(cResults));
+    assertEquals(unit.size(), nodes);
+    assertEquals(unit.numLeaves(), leaves);
+  }
+
+  @Test
+  public void parallelFoldGivesTheSameResultAsFold() throws IOException {
+    DictionaryTree unit = CLI.loadWords(new File("word-popularity.txt"));
+    BiFunction<DictionaryTree, Collection<Integer>, Integer> nodes =
+        (tree, cResults) -> 1 + sum(cResults);
+    BiFunction<DictionaryTree, Collection<Integer>, Integer> branching = (tree, cResults) -> {
+      int max = cResults.size();
+      for (int result : cResults) {
+        max = Math.max(max, result);
+      }
+      return max;
+    };
+    // The shape of the tree as nested brackets, which is only the same if the children's results
+    // are passed in the same order
+    BiFunction<DictionaryTree, Collection<String>, String> shape =
+        (tree, cResults) -> "(" + String.join("", cResults) + ")";
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      assertEquals(unit.size(), (int) unit.parallelFold(nodes, pool));
+      assertEquals(unit.maximumBranching(), (int) unit.parallelFold(branching, pool));
+      assertEquals(unit.fold(shape), unit.parallelFold(shape, pool));
+      assertEquals(unit.fold(nodes), unit.parallelFold(nodes));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void statisticsStayCorrectWhileWordsAreInsertedAndRemoved() {
+    BiFunction<DictionaryTree, Collection<Integer>, Integer> nodes =
+        (tree, cResults) -> 1 + sum(cResults);
+    BiFunction<DictionaryTree, Collection<Integer>, Integer> leaves =
+        (tree, cResults) -> cResults.isEmpty() ? 1 : sum(cResults);
+    BiFunction<DictionaryTree, Collection<Integer>, Integer> branching = (tree, cResults) -> {
+      int max = cResults.size();
+      for (int result : cResults) {
+        max = Math.max(max, result);
+      }
+      return max;
+    };
+    DictionaryTree unit = new DictionaryTree();
+    Random random = new Random(13);
+    for (int i = 0; i < 3000; i++) {
+      // Short words from a few letters, so words often share nodes and get removed again
+      char[] word = new char[1 + random.nextInt(6)];
+      for (int j = 0; j < word.length; j++) {
+        word[j] = (char) ('a' + random.nextInt(4));
+      }
+      if (random.nextInt(3) == 0) {
+        unit.remove(new String(word));
+      } else {
+        unit.insert(new String(word));
+      }
+
+      assertEquals((int) unit.fold(nodes), unit.size());
+      assertEquals((int) unit.fold(leaves), unit.numLeaves());
+      assertEquals((int) unit.fold(branching), unit.maximumBranching());
+      String longest = "";
+      for (String stored : unit.allWords()) {
+        if (stored.length() > longest.length()) {
+          longest = stored;
+        }
+      }
+      assertEquals(longest, unit.longestWord());
+      assertEquals(longest.length(), unit.height());
+    }
+  }
+
+  @Test
+  public void wordsGoesThroughWordsWithThePrefixInOrder() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("mat");
+    unit.insert("m");
+    unit.insert("mad");
+    unit.insert("cat");
+    Iterator<String> words = unit.words("ma");
+    Assertions.assertTrue(words.hasNext());
+    assertEquals("mad", words.next());
+    assertEquals("mat", words.next());
+    Assertions.assertFalse(words.hasNext());
+    Assertions.assertThrows(NoSuchElementException.class, words::next);
+
+    Assertions.assertFalse(unit.words("x").hasNext());
+    assertEquals(Arrays.asList("m", "mad", "mat"), unit.stream("m").collect(Collectors.toList()));
+    assertEquals(unit.allWords(), unit.stream().collect(Collectors.toList()));
+  }
+
+  @Test
+  public void parallelStreamGivesEveryWordInOrder() throws IOException {
+    DictionaryTree unit = CLI.loadWords(new File("word-popularity.txt"));
+    List<String> expected = unit.allWords();
+    assertEquals(expected, unit.stream().parallel().collect(Collectors.toList()));
+    assertEquals(expected.size(), unit.stream().parallel().count());
+    assertEquals(expected.stream().filter(word -> word.startsWith("th")).count(),
+        unit.stream("th").parallel().count());
+
+    // Splitting the top of the tree keeps the words of both halves in order
+    Spliterator<String> second = unit.stream().spliterator();
+    Spliterator<String> first = second.trySplit();
+    List<String> words = new ArrayList<String>();
+    first.forEachRemaining(words::add);
+    Assertions.assertTrue(words.size() > 0 && words.size() < expected.size());
+    second.forEachRemaining(words::add);
+    assertEquals(expected, words);
+  }
+
+  @Test
+  public void predictFuzzyRanksCloserWordsFirst() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("help", 10);
+    unit.insert("hello", 50);
+    unit.insert("hell", 5);
+    unit.insert("yellow", 100);
+    unit.insert("world", 1000);
+    assertEquals(Arrays.asList("hello", "hell"), unit.predictFuzzy("hell", 0, 5));
+    assertEquals(unit.predict("hell", 5), unit.predictFuzzy("hell", 0, 5));
+    assertEquals(Arrays.asList("hello", "hell", "yellow", "help"),
+        unit.predictFuzzy("hell", 1, 5));
+    assertEquals(Arrays.asList("hello", "hell", "yellow"), unit.predictFuzzy("hell", 1, 3));
+    assertEquals(Arrays.asList("help"), unit.predictFuzzy("hwlp", 1, 5));
+    assertEquals(Arrays.asList("help", "hello", "hell"), unit.predictFuzzy("hwlp", 2, 5));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> unit.predictFuzzy("a", -1, 5));
+  }
+
+  @Test
+  public void predictFuzzyMatchesCheckingEveryWord() {
+    DictionaryTree unit = new DictionaryTree();
+    Random random = new Random(17);
+    for (int i = 0; i < 300; i++) {
+      unit.insert(randomWord(random), random.nextInt(10));
+    }
+
+    for (int i = 0; i < 200; i++) {
+      String prefix = randomWord(random);
+      prefix = prefix.substring(0, Math.min(prefix.length(), 1 + random.nextInt(3)));
+      int maxEdits = random.nextInt(3);
+      // A word is as far from the prefix as its closest prefix
+      List<String> expected = new ArrayList<String>(unit.allWords());
+      Map<String, Integer> distances = new HashMap<String, Integer>();
+      for (String word : expected) {
+        int distance = Integer.MAX_VALUE;
+        for (int end = 0; end <= word.length(); end++) {
+          distance = Math.min(distance, editDistance(prefix, word.substring(0, end)));
+        }
+        distances.put(word, distance);
+      }
+      expected.removeIf(word -> distances.get(word) > maxEdits);
+      expected.sort(Comparator.comparing((String word) -> distances.get(word))
+          .thenComparing(word -> -unit.popularity(word))
+          .thenComparing(Comparator.reverseOrder()));
+
+      assertEquals(expected.subList(0, Math.min(12, expected.size())),
+          unit.predictFuzzy(prefix, maxEdits, 12));
+    }
+  }
+
+  @Test
+  public void predictAllGivesTheSamePredictionsInTheSameOrder() throws IOException {
+    DictionaryTree unit = CLI.loadWords(new File("word-popularity.txt"));
+    List<String> words = unit.allWords();
+    Random random = new Random(18);
+    // Enough prefixes to be split between threads, with repeats, missing and empty prefixes
+    List<String> prefixes = new ArrayList<String>();
+    for (int i = 0; i < 5000; i++) {
+      String word = words.get(random.nextInt(words.size()));
+      prefixes.add(word.substring(0, random.nextInt(word.length() + 1)));
+    }
+    prefixes.addAll(Arrays.asList("", "zzzz", "the", "the", "qx", "th"));
+
+    List<List<String>> predicted = unit.predictAll(prefixes, 12);
+    assertEquals(prefixes.size(), predicted.size());
+    for (int i = 0; i < prefixes.size(); i++) {
+      assertEquals(unit.predict(prefixes.get(i), 12), predicted.get(i));
+    }
+
+    DictionaryTree small = new DictionaryTree();
+    small.insert("cat", 1);
+    small.insert("car", 2);
+    assertEquals(Arrays.asList(Arrays.asList("car"), Arrays.asList(), Arrays.asList("car", "cat")),
+        small.predictAll(Arrays.asList("car", "b", "c"), 3));
+  }
+
+  @Test
+  public void removePrefixRemovesEveryWordWithThePrefix() throws IOException {
+    DictionaryTree unit = CLI.loadWords(new File("word-popularity.txt"));
+    DictionaryTree expected = new DictionaryTree();
+    int removedWords = 0;
+    for (String word : unit.allWords()) {
+      if (word.startsWith("co") || word.startsWith("qu")) {
+        removedWords++;
+      } else {
+        expected.insert(word, unit.popularity(word));
+      }
+    }
+
+    assertEquals(removedWords, unit.removePrefix("co") + unit.removePrefix("qu"));
+    assertEquals(0, unit.removePrefix("co"));
+    assertEquals(0, unit.removePrefix("xyzzy"));
+    assertEquals(expected.allWords(), unit.allWords());
+    assertEquals(expected.wordCount(), unit.wordCount());
+    assertEquals(expected.size(), unit.size());
+    assertEquals(expected.numLeaves(), unit.numLeaves());
+    assertEquals(expected.height(), unit.height());
+    assertEquals(expected.maximumBranching(), unit.maximumBranching());
+    assertEquals(expected.longestWord(), unit.longestWord());
+    for (String prefix : Arrays.asList("", "c", "q", "cu", "a")) {
+      assertEquals(expected.predict(prefix, 10), unit.predict(prefix, 10));
+      assertEquals(expected.predict(prefix, 30), unit.predict(prefix, 30));
+    }
+  }
+
+  @Test
+  public void removePrefixPrunesNodesAboveThePrefix() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("ab");
+    unit.insert("xyzw");
+    unit.insert("xyzv");
+    assertEquals(2, unit.removePrefix("xyz"));
+    assertEquals(Arrays.asList("ab"), unit.allWords());
+    assertEquals(3, unit.size());
+    assertEquals(1, unit.numLeaves());
+    assertEquals(2, unit.height());
+
+    assertEquals(1, unit.removePrefix(""));
+    assertEquals(0, unit.wordCount());
+    assertEquals(1, unit.size());
+    assertEquals(Optional.empty(), unit.predict(""));
+    unit.insert("cat");
+    assertEquals(Arrays.asList("cat"), unit.allWords());
+  }
+
+  @Test
+  public void removeAllCountsRemovedWords() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("cat");
+    unit.insert("car");
+    unit.insert("cart");
+    assertEquals(3, unit.wordCount());
+    assertEquals(2, unit.removeAll(Arrays.asList("car", "cart", "dog", "car")));
+    assertEquals(Arrays.asList("cat"), unit.allWords());
+    assertEquals(1, unit.wordCount());
+    assertEquals(4, unit.size());
+  }
+
+  private static String randomWord(Random random) {
+    char[] word = new char[1 + random.nextInt(6)];
+    for (int j = 0; j < word.length; j++) {
+      word[j] = (char) ('a' + random.nextInt(5));
+    }
+    return new String(word);
+  }
+
+  private static int editDistance(String a, String b) {
+    int[][] distances = new int[a.length() + 1][b.length() + 1];
+    for (int i = 0; i <= a.length(); i++) {
+      for (int j = 0; j <= b.length(); j++) {
+        if (i == 0 || j == 0) {
+          distances[i][j] = i + j;
+        } else {
+          int substitution = distances[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+          distances[i][j] = Math.min(substitution,
+              Math.min(distances[i - 1][j], distances[i][j - 1]) + 1);
+        }
+      }
+    }
+    return distances[a.length()][b.length()];
+  }
+
+  private static int sum(Collection<Integer> values) {
+    int sum = 0;
+    for (int value : values) {
+      sum += value;
+    }
+    return sum;
+  }
+
+  @Test
+  public void recordSelectionReranksPredictions() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("cat", 5);
+    unit.insert("car", 3);
+    unit.insert("cart", 1);
+    assertEquals(Arrays.asList("cat", "car", "cart"), unit.predict("ca", 3));
+
+    for (int i = 0; i < 5; i++) {
+      assertEquals(true, unit.recordSelection("cart"));
+    }
+    assertEquals(5, unit.selections("cart"));
+    assertEquals(1, unit.popularity("cart"));
+    assertEquals(Arrays.asList("cart", "cat", "car"), unit.predict("ca", 3));
+    assertEquals(Arrays.asList("cart", "car"), unit.predict("car", 20));
+    assertEquals(false, unit.recordSelection("ca"));
+    assertEquals(false, unit.recordSelection("dog"));
+
+    // Removing a word forgets its selections
+    unit.remove("cart");
+    unit.insert("cart", 1);
+    assertEquals(0, unit.selections("cart"));
+    assertEquals(Arrays.asList("cat", "car", "cart"), unit.predict("ca", 3));
+  }
+
+  @Test
+  public void concurrentSelectionsMatchRebuiltTree() throws Exception {
+    DictionaryTree unit = CLI.loadWords(new File("word-popularity.txt"));
+    List<String> words = unit.allWords();
+    List<String> selected = new ArrayList<String>();
+    Random random = new Random(22);
+    for (int i = 0; i < 50; i++) {
+      selected.add(words.get(random.nextInt(words.size())));
+    }
+
+    // Every thread selects every word the same amount of times, while predicting at the same time
+    int threads = 4;
+    int rounds = 200;
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    List<Future<?>> futures = new ArrayList<Future<?>>();
+    for (int t = 0; t < threads; t++) {
+      futures.add(pool.submit(() -> {
+        for (int round = 0; round < rounds; round++) {
+          for (String word : selected) {
+            unit.recordSelection(word);
+            unit.predict(word.substring(0, 1), 5);
+          }
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    pool.shutdown();
+
+    Map<String, Integer> times = new HashMap<String, Integer>();
+    for (String word : selected) {
+      times.merge(word, threads * rounds, Integer::sum);
+    }
+    DictionaryTree expected = new DictionaryTree();
+    for (String word : words) {
+      expected.insert(word, unit.popularity(word) + times.getOrDefault(word, 0));
+    }
+    for (String word : selected) {
+      assertEquals((long) times.get(word), unit.selections(word));
+      for (int length = 0; length <= word.length(); length++) {
+        String prefix = word.substring(0, length);
+        assertEquals(expected.predict(prefix, 10), unit.predict(prefix, 10));
+        assertEquals(expected.predict(prefix, 30), unit.predict(prefix, 30));
+      }
+    }
+  }
+
+  @Test
+  public void decaySelectionsScalesCounters() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.insert("cat", 5);
+    unit.insert("car", 3);
+    for (int i = 0; i < 7; i++) {
+      unit.recordSelection("car");
+    }
+    assertEquals(Arrays.asList("car", "cat"), unit.predict("ca", 2));
+
+    unit.decaySelections(0.25);
+    assertEquals(1, unit.selections("car"));
+    assertEquals(Arrays.asList("cat", "car"), unit.predict("ca", 2));
+    unit.recordSelection("car");
+    assertEquals(2, unit.selections("car"));
+    unit.decaySelections(0);
+    assertEquals(0, unit.selections("car"));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> unit.decaySelections(1.5));
+  }
+}
@@ -0,0 +1,94 @@
+package trie;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+public class FrozenDictionaryTests {
+
+  @Test
+  public void frozenDictionaryContainsInsertedWords() {
+    DictionaryTree tree = new DictionaryTree();
+    tree.insert("info");
+    tree.insert("information");
+    FrozenDictionary unit = tree.freeze();
+    Assertions.assertTrue(unit.contains("info"));
+    Assertions.assertTrue(unit.contains("information"));
+    Assertions.assertFalse(unit.contains("inform"));
+    Assertions.assertFalse(unit.contains(""));
+  }
+
+  @Test
+  public void frozenEmptyTreeIsJustTheRoot() {
+    FrozenDictionary unit = new DictionaryTree().freeze();
+    assertEquals(1, unit.size());
+    assertEquals(0, unit.height());
+    assertEquals(1, unit.numLeaves());
+    assertEquals(Optional.empty(), unit.predict(""));
+    assertEquals(new ArrayList<String>(), unit.allWords());
+  }
+
+  @Test
+  public void predictReturnsObjectsAccordingToPopularity() {
+    DictionaryTree tree = new DictionaryTree();
+    tree.insert("phone", 484);
+    tree.insert("photo", 247);
+    tree.insert("pile", 37);
+    tree.insert("test");
+    tree.insert("phones", 8);
+    tree.insert("physical", 4);
+    tree.insert("photos", 90);
+    tree.insert("phot", 8);
+    FrozenDictionary unit = tree.freeze();
+
+    List<String> correctList = new ArrayList<String>();
+    correctList.add("phone");
+    correctList.add("photo");
+    correctList.add("photos");
+    correctList.add("phot");
+    correctList.add("phones");
+    correctList.add("physical");
+
+    assertEquals(correctList, unit.predict("ph", 10));
+    assertEquals(Optional.of("phone"), unit.predict("p"));
+    assertEquals(8, unit.popularity("phot"));
+  }
+
+  @Test
+  public void frozenDictionaryAnswersTheSameAsTheTreeItWasMadeFrom() throws IOException {
+    DictionaryTree tree = CLI.loadWords(new File("word-popularity.txt"));
+    FrozenDictionary unit = tree.freeze();
+
+    assertEquals(tree.size(), unit.size());
+    assertEquals(tree.height(), unit.height());
+    assertEquals(tree.numLeaves(), unit.numLeaves());
+    assertEquals(tree.allWords(), unit.allWords());
+
+    String[] prefixes = {"", "a", "th", "co", "qu", "zz", "the", "don't", "\u00e9"};
+    for (String prefix : prefixes) {
+      assertEquals(tree.predict(prefix, 5), unit.predict(prefix, 5));
+      assertEquals(tree.predict(prefix, 50), unit.predict(prefix, 50));
+    }
+  }
+
+  @Test
+  public void frozenDictionaryRanksSelections() {
+    DictionaryTree tree = new DictionaryTree();
+    tree.insert("phone", 5);
+    tree.insert("photo", 4);
+    tree.insert("pile", 3);
+    for (int i = 0; i < 3; i++) {
+      tree.recordSelection("pile");
+    }
+    FrozenDictionary unit = tree.freeze();
+
+    assertEquals(tree.predict("p", 3), unit.predict("p", 3));
+    assertEquals(Optional.of("pile"), unit.predict("p"));
+    assertEquals(6, unit.popularity("pile"));
+  }
+}
@@ -0,0 +1,78 @@
+package trie;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+public class MappedDictionaryTests {
+
+  @Test
+  public void mappedDictionaryContainsWrittenWords() throws IOException {
+    DictionaryTree tree = new DictionaryTree();
+    tree.insert("phone", 484);
+    tree.insert("photo", 247);
+    tree.insert("pile", 37);
+    tree.insert("phones", 8);
+    Path file = Files.createTempFile("dictionary", ".bin");
+    try {
+      tree.freeze().write(file);
+      MappedDictionary unit = MappedDictionary.open(file);
+
+      Assertions.assertTrue(unit.contains("phone"));
+      Assertions.assertTrue(unit.contains("pile"));
+      Assertions.assertFalse(unit.contains("pho"));
+      assertEquals(37, unit.popularity("pile"));
+      assertEquals(Optional.of("phone"), unit.predict("p"));
+
+      List<String> correctList = new ArrayList<String>();
+      correctList.add("phone");
+      correctList.add("photo");
+      correctList.add("phones");
+      assertEquals(correctList, unit.predict("ph", 5));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void openRejectsFilesThatAreNotDictionaries() throws IOException {
+    Path file = Files.createTempFile("dictionary", ".bin");
+    try {
+      Files.write(file, "definitely not a dictionary file".getBytes(StandardCharsets.UTF_8));
+      Assertions.assertThrows(IOException.class, () -> MappedDictionary.open(file));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void mappedDictionaryAnswersTheSameAsTheTreeItWasWrittenFrom() throws IOException {
+    DictionaryTree tree = CLI.loadWords(new File("word-popularity.txt"));
+    Path file = Files.createTempFile("dictionary", ".bin");
+    try {
+      tree.freeze().write(file);
+      MappedDictionary unit = MappedDictionary.open(file);
+
+      assertEquals(tree.size(), unit.size());
+      assertEquals(tree.height(), unit.height());
+      assertEquals(tree.numLeaves(), unit.numLeaves());
+      assertEquals(tree.allWords(), unit.allWords());
+
+      String[] prefixes = {"", "a", "th", "co", "qu", "zz", "the", "don't", "\u00e9"};
+      for (String prefix : prefixes) {
+        assertEquals(tree.predict(prefix, 5), unit.predict(prefix, 5));
+        assertEquals(tree.predict(prefix, 50), unit.predict(prefix, 50));
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
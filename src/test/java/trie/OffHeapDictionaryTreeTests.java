@@ -0,0 +1,88 @@
+package trie;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+public class OffHeapDictionaryTreeTests {
+
+  @Test
+  public void matchesDictionaryTreeThroughInsertsAndRemoves() throws IOException {
+    File words = new File("word-popularity.txt");
+    DictionaryTree expected = CLI.loadWords(words);
+    // load starts with room for 1024 nodes, so the buffer grows several times
+    try (OffHeapDictionaryTree unit = OffHeapDictionaryTree.load(words)) {
+      assertEquals(expected.size(), unit.size());
+      assertEquals(expected.wordCount(), unit.wordCount());
+      assertEquals(expected.allWords(), unit.allWords());
+
+      // Remove and reinsert words with new popularities, so records are freed and reused
+      List<String> all = expected.allWords();
+      Random random = new Random(25);
+      for (int i = 0; i < 5000; i++) {
+        // Now and then try the empty word, which neither of them stores
+        String word = i % 500 == 0 ? "" : all.get(random.nextInt(all.size()));
+        if (random.nextBoolean()) {
+          assertEquals(expected.remove(word), unit.remove(word));
+        } else {
+          int popularity = random.nextInt(200000) - 100000;
+          expected.insert(word, popularity);
+          unit.insert(word, popularity);
+        }
+      }
+
+      assertEquals(expected.size(), unit.size());
+      assertEquals(expected.wordCount(), unit.wordCount());
+      assertEquals(expected.allWords(), unit.allWords());
+      assertEquals(expected.contains(""), unit.contains(""));
+      assertEquals(expected.predict("", 30), unit.predict("", 30));
+      for (int i = 0; i < 2000; i++) {
+        String word = all.get(random.nextInt(all.size()));
+        String prefix = word.substring(0, random.nextInt(word.length() + 1));
+        assertEquals(expected.contains(word), unit.contains(word));
+        assertEquals(expected.popularity(word), unit.popularity(word));
+        assertEquals(expected.predict(prefix, 10), unit.predict(prefix, 10));
+        assertEquals(expected.predict(prefix, 30), unit.predict(prefix, 30));
+      }
+    }
+  }
+
+  @Test
+  public void ranksLikeDictionaryTree() {
+    try (OffHeapDictionaryTree unit = new OffHeapDictionaryTree(1)) {
+      unit.insert("cat", 5);
+      unit.insert("car", 3);
+      unit.insert("cart");
+      unit.insert("can");
+      assertEquals(Arrays.asList("cat", "car", "cart", "can"), unit.predict("ca", 10));
+      assertEquals(Optional.of("cat"), unit.predict("c"));
+
+      unit.insert("cat", 1);
+      assertEquals(Arrays.asList("car", "cat"), unit.predict("ca", 2));
+      assertEquals(true, unit.remove("car"));
+      assertEquals(false, unit.remove("car"));
+      assertEquals(Arrays.asList("cat", "cart", "can"), unit.predict("ca", 10));
+      assertEquals(Arrays.asList("cart"), unit.predict("car", 10));
+      assertEquals(Optional.empty(), unit.predict("x"));
+    }
+  }
+
+  @Test
+  public void cannotBeUsedAfterClose() {
+    OffHeapDictionaryTree unit = new OffHeapDictionaryTree();
+    unit.insert("word");
+    Assertions.assertTrue(unit.offHeapBytes() > 0);
+    unit.close();
+    unit.close();
+    assertEquals(0, unit.offHeapBytes());
+    Assertions.assertThrows(IllegalStateException.class, () -> unit.contains("word"));
+    Assertions.assertThrows(IllegalStateException.class, () -> unit.insert("word"));
+    Assertions.assertThrows(IllegalStateException.class, () -> unit.predict("w", 3));
+  }
+}
@@ -0,0 +1,205 @@
+package trie;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+public class PredictionCacheTests {
+
+  @Test
+  public void repeatedPredictionsAreAnsweredFromTheCache() {
+    DictionaryTree unit = new DictionaryTree();
+    PredictionCache cache = new PredictionCache(10);
+    unit.setPredictionCache(cache);
+    unit.insert("phone", 484);
+    unit.insert("photo", 247);
+    unit.insert("pile", 37);
+
+    assertEquals(Arrays.asList("phone", "photo"), unit.predict("ph", 3));
+    assertEquals(Arrays.asList("phone", "photo"), unit.predict("ph", 3));
+    // Fewer words with the same prefix come from the same entry
+    assertEquals(Arrays.asList("phone"), unit.predict("ph", 1));
+    // The list had fewer words than asked for, so it has every word with the prefix
+    assertEquals(Arrays.asList("phone", "photo"), unit.predict("ph", 20));
+    assertEquals(1, cache.misses());
+    assertEquals(3, cache.hits());
+
+    // More words than were kept can't be answered from the cache
+    assertEquals(Arrays.asList("phone"), unit.predict("p", 1));
+    assertEquals(Arrays.asList("phone", "photo", "pile"), unit.predict("p", 3));
+    assertEquals(3, cache.misses());
+  }
+
+  @Test
+  public void changingAWordOnlyDropsThePredictionsOfItsPrefixes() {
+    DictionaryTree unit = new DictionaryTree();
+    PredictionCache cache = new PredictionCache(10);
+    unit.setPredictionCache(cache);
+    unit.insert("cat", 5);
+    unit.insert("dog", 3);
+    unit.predict("", 5);
+    unit.predict("c", 5);
+    unit.predict("ca", 5);
+    unit.predict("d", 5);
+    assertEquals(4, cache.size());
+
+    unit.insert("car", 10);
+    assertEquals(1, cache.size());
+    assertEquals(Arrays.asList("dog"), unit.predict("d", 5));
+    assertEquals(1, cache.hits());
+    assertEquals(Arrays.asList("car", "cat"), unit.predict("ca", 5));
+
+    Assertions.assertTrue(unit.remove("dog"));
+    assertEquals(Arrays.asList("car", "cat"), unit.predict("", 5));
+    assertEquals(Arrays.asList(), unit.predict("d", 5));
+  }
+
+  @Test
+  public void removingAPrefixDropsThePredictionsStartingWithIt() {
+    DictionaryTree unit = new DictionaryTree();
+    PredictionCache cache = new PredictionCache(10);
+    unit.setPredictionCache(cache);
+    unit.insert("cat", 5);
+    unit.insert("cow", 3);
+    unit.insert("dog", 3);
+    unit.predict("", 5);
+    unit.predict("c", 5);
+    unit.predict("cat", 5);
+    unit.predict("co", 5);
+    unit.predict("d", 5);
+
+    unit.removePrefix("ca");
+    assertEquals(2, cache.size());
+    assertEquals(Arrays.asList(), unit.predict("cat", 5));
+    assertEquals(Arrays.asList("dog", "cow"), unit.predict("", 5));
+  }
+
+  @Test
+  public void leastRecentlyUsedPrefixIsDroppedWhenFull() {
+    DictionaryTree unit = new DictionaryTree();
+    PredictionCache cache = new PredictionCache(2);
+    unit.setPredictionCache(cache);
+    unit.insert("apple");
+    unit.predict("a", 1);
+    unit.predict("b", 1);
+    unit.predict("a", 1);
+    unit.predict("c", 1);
+    assertEquals(2, cache.size());
+    unit.predict("a", 1);
+    assertEquals(2, cache.hits());
+    unit.predict("b", 1);
+    assertEquals(4, cache.misses());
+  }
+
+  @Test
+  public void cachedPredictionsStayTheSameAsUncachedOnes() {
+    DictionaryTree unit = new DictionaryTree();
+    DictionaryTree expected = new DictionaryTree();
+    unit.setPredictionCache(new PredictionCache(50));
+    Random random = new Random(15);
+    for (int i = 0; i < 5000; i++) {
+      char[] word = new char[1 + random.nextInt(4)];
+      for (int j = 0; j < word.length; j++) {
+        word[j] = (char) ('a' + random.nextInt(3));
+      }
+      String prefix = new String(word, 0, random.nextInt(word.length));
+      int n = 1 + random.nextInt(15);
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(new String(word)), unit.remove(new String(word)));
+      } else {
+        int popularity = random.nextInt(20);
+        expected.insert(new String(word), popularity);
+        unit.insert(new String(word), popularity);
+      }
+      List<String> predicted = unit.predict(prefix, n);
+      assertEquals(expected.predict(prefix, n), predicted);
+    }
+  }
+
+  @Test
+  public void capacityMustBePositive() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new PredictionCache(0));
+  }
+
+  @Test
+  public void selectionsAreRankedStraightAwayWithACache() {
+    DictionaryTree unit = new DictionaryTree();
+    PredictionCache cache = new PredictionCache(10);
+    unit.setPredictionCache(cache);
+    unit.insert("ab", 5);
+    unit.insert("ac", 1);
+    unit.insert("b", 3);
+
+    assertEquals(Arrays.asList("ab", "ac"), unit.predict("a", 2));
+    assertEquals(Arrays.asList("b"), unit.predict("b", 2));
+    for (int i = 0; i < 100; i++) {
+      unit.recordSelection("ac");
+    }
+    assertEquals(Arrays.asList("ac", "ab"), unit.predict("a", 2));
+    assertEquals(Arrays.asList("ac", "ab", "b"), unit.predict("", 3));
+    assertEquals(Arrays.asList("ac", "ab"), unit.predict("a", 2));
+    // Only the prefixes of the selected word are predicted again
+    assertEquals(Arrays.asList("b"), unit.predict("b", 2));
+    assertEquals(2, cache.hits());
+  }
+
+  @Test
+  public void cachedPredictionsFollowSelectionsFromManyThreads() throws InterruptedException {
+    DictionaryTree unit = new DictionaryTree();
+    DictionaryTree expected = new DictionaryTree();
+    unit.setPredictionCache(new PredictionCache(50));
+    String[] words = {"a", "ab", "abc", "ac", "b", "ba", "bb", "c"};
+    for (int i = 0; i < words.length; i++) {
+      unit.insert(words[i], i * 10);
+      expected.insert(words[i], i * 10);
+    }
+
+    // Threads select and predict at the same time, and once they're done every prediction has to
+    // rank like a tree without a cache
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      Random random = new Random(t);
+      threads[t] = new Thread(() -> {
+        for (int i = 0; i < 20000; i++) {
+          String word = words[random.nextInt(words.length)];
+          if (random.nextBoolean()) {
+            unit.recordSelection(word);
+          } else {
+            unit.predict(word.substring(0, random.nextInt(word.length() + 1)), 3);
+          }
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    for (String word : words) {
+      for (long i = unit.selections(word); i > 0; i--) {
+        expected.recordSelection(word);
+      }
+    }
+    for (String word : words) {
+      for (int length = 0; length <= word.length(); length++) {
+        String prefix = word.substring(0, length);
+        assertEquals(expected.predict(prefix, 3), unit.predict(prefix, 3));
+      }
+    }
+  }
+
+  @Test
+  public void negativeAmountsPredictNothingWhetherCachedOrNot() {
+    DictionaryTree unit = new DictionaryTree();
+    unit.setPredictionCache(new PredictionCache(10));
+    unit.insert("phone", 5);
+    unit.insert("photo", 4);
+
+    assertEquals(Arrays.asList(), unit.predict("ph", -1));
+    assertEquals(Arrays.asList("phone", "photo"), unit.predict("ph", 2));
+    assertEquals(Arrays.asList(), unit.predict("ph", -1));
+  }
+}
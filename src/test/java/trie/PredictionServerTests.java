@@ -0,0 +1,168 @@
+package trie;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+public class PredictionServerTests {
+
+  private static DictionaryTree dictionary() {
+    DictionaryTree d = new DictionaryTree();
+    d.insert("cat", 5);
+    d.insert("car", 3);
+    d.insert("cart", 1);
+    d.insert("dog", 4);
+    return d;
+  }
+
+  @Test
+  public void answersPipelinedRequestsInOrder() throws IOException {
+    DictionaryTree d = dictionary();
+    try (PredictionServer server =
+        new PredictionServer(d, InetAddress.getLoopbackAddress(), 0)) {
+      server.start();
+      try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port());
+          BufferedReader in = new BufferedReader(
+              new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+          Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+        // Everything is sent before any answer is read
+        out.write("PREDICT\t2\tca\n");
+        out.write("PREDICT\t5\t\n");
+        out.write("CONTAINS\tcar\n");
+        out.write("CONTAINS\tca\n");
+        out.write("BATCH\t1\t3\nd\nca\nx\n");
+        out.write("SELECT\tcart\n");
+        out.write("PREDICT\t1\tcar\n");
+        out.write("PREDICT\tmany\tca\n");
+        out.write("FIND\tca\n");
+        out.write("CONTAINS\n");
+        out.flush();
+
+        assertEquals("OK\tcat\tcar", in.readLine());
+        assertEquals("OK\tcat\tdog\tcar\tcart", in.readLine());
+        assertEquals("OK\ttrue", in.readLine());
+        assertEquals("OK\tfalse", in.readLine());
+        assertEquals("OK\t3", in.readLine());
+        assertEquals("d\tdog", in.readLine());
+        assertEquals("ca\tcat", in.readLine());
+        assertEquals("x", in.readLine());
+        assertEquals("OK\ttrue", in.readLine());
+        assertEquals("OK\tcar", in.readLine());
+        Assertions.assertTrue(in.readLine().startsWith("ERR\t"));
+        assertEquals("ERR\tUnknown request FIND", in.readLine());
+        assertEquals("ERR\tCONTAINS takes 1 fields, not 0", in.readLine());
+      }
+    }
+    assertEquals(1, d.selections("cart"));
+  }
+
+  @Test
+  public void rejectedBatchesDontTakeTheirPrefixesAsRequests() throws IOException {
+    try (PredictionServer server =
+        new PredictionServer(dictionary(), InetAddress.getLoopbackAddress(), 0)) {
+      server.start();
+      try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port());
+          BufferedReader in = new BufferedReader(
+              new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+          Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+        out.write("BATCH\tmany\t2\nca\nd\n");
+        out.write("PREDICT\t1\tca\n");
+        out.write("BATCH\t1\t100001\n");
+        for (int i = 0; i < 100001; i++) {
+          out.write("c\n");
+        }
+        out.write("CONTAINS\tdog\n");
+        // A count which can't be read closes the connection. Nothing is sent after it, as the
+        // server closing with unread input could reset the connection before the answer is read
+        out.write("BATCH\t1\tsome\n");
+        out.flush();
+
+        Assertions.assertTrue(in.readLine().startsWith("ERR\t"));
+        assertEquals("OK\tcat", in.readLine());
+        assertEquals("ERR\tAt most 100000 prefixes in a batch", in.readLine());
+        assertEquals("OK\ttrue", in.readLine());
+        Assertions.assertTrue(in.readLine().startsWith("ERR\t"));
+        assertEquals(null, in.readLine());
+      }
+    }
+  }
+
+  @Test
+  public void loadGeneratorGetsEveryRequestAnswered() throws IOException {
+    try (PredictionServer server =
+        new PredictionServer(dictionary(), InetAddress.getLoopbackAddress(), 0)) {
+      server.start();
+      LoadGenerator generator = new LoadGenerator(InetAddress.getLoopbackAddress().getHostAddress(),
+          server.port(), Arrays.asList("c", "ca", "d", "x", ""));
+      LoadGenerator.Result result = generator.run(3, 0.5, 4, 3);
+
+      Assertions.assertTrue(result.requests() > 0);
+      assertEquals(0, result.errors());
+      Assertions.assertTrue(result.percentileNanos(0.99) >= result.percentileNanos(0.5));
+    }
+  }
+
+  @Test
+  public void servesConnectionsOnPlatformAndDefaultThreads() throws IOException {
+    // The cached pool is what Java 17 gets, connectionExecutor whatever this JVM gets
+    for (ExecutorService executor : Arrays.asList(Executors.newCachedThreadPool(),
+        PredictionServer.connectionExecutor())) {
+      try (PredictionServer server =
+          new PredictionServer(dictionary(), InetAddress.getLoopbackAddress(), 0, executor)) {
+        server.start();
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port());
+            BufferedReader in = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer out =
+                new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+          out.write("PREDICT\t2\tca\nCONTAINS\tdog\nBATCH\t1\t1\nd\n");
+          out.flush();
+
+          assertEquals("OK\tcat\tcar", in.readLine());
+          assertEquals("OK\ttrue", in.readLine());
+          assertEquals("OK\t1", in.readLine());
+          assertEquals("d\tdog", in.readLine());
+        }
+      }
+      Assertions.assertTrue(executor.isShutdown());
+    }
+  }
+
+  @Test
+  public void connectionsGetVirtualThreadsOnlyWhenTheJvmHasThem()
+      throws InterruptedException, ExecutionException, ReflectiveOperationException {
+    Method isVirtual;
+    try {
+      isVirtual = Thread.class.getMethod("isVirtual");
+    } catch (NoSuchMethodException e) {
+      isVirtual = null;
+    }
+    ExecutorService executor = PredictionServer.connectionExecutor();
+    try {
+      Thread thread = executor.submit(Thread::currentThread).get();
+      if (isVirtual == null) {
+        // Before Java 21 every connection has a platform thread from a cached pool
+        Assertions.assertTrue(executor instanceof ThreadPoolExecutor);
+        assertEquals(0, ((ThreadPoolExecutor) executor).getCorePoolSize());
+      } else {
+        assertEquals(true, isVirtual.invoke(thread));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package trie;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Optional;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+public class PredictionSessionTests {
+
+  @Test
+  public void typingAndDeletingPredictsLikeTheTree() throws IOException {
+    DictionaryTree tree = CLI.loadWords(new File("word-popularity.txt"));
+    PredictionSession unit = new PredictionSession(tree);
+    String typed = "informationxyz";
+    for (int i = 0; i < typed.length(); i++) {
+      unit.type(typed.charAt(i));
+      assertEquals(typed.substring(0, i + 1), unit.prefix());
+      assertEquals(tree.predict(unit.prefix(), 5), unit.predict(5));
+      assertEquals(tree.predict(unit.prefix(), 20), unit.predict(20));
+    }
+    while (unit.backspace()) {
+      assertEquals(tree.predict(unit.prefix(), 5), unit.predict(5));
+    }
+    assertEquals("", unit.prefix());
+    Assertions.assertFalse(unit.backspace());
+  }
+
+  @Test
+  public void sessionFollowsChangesToTheTree() {
+    DictionaryTree tree = new DictionaryTree();
+    tree.insert("cat", 2);
+    tree.insert("car", 1);
+    PredictionSession unit = new PredictionSession(tree);
+    unit.type("cat");
+    assertEquals(Optional.of("cat"), unit.predict());
+
+    // The nodes of the prefix are taken out of the tree
+    tree.remove("cat");
+    assertEquals(Optional.empty(), unit.predict());
+    unit.backspace();
+    assertEquals(Arrays.asList("car"), unit.predict(5));
+
+    // Typing characters no word has yet, then inserting such a word
+    unit.type("ts");
+    assertEquals(Optional.empty(), unit.predict());
+    tree.insert("cats", 3);
+    assertEquals(Optional.of("cats"), unit.predict());
+    unit.backspace();
+    assertEquals(Arrays.asList("cats"), unit.predict(5));
+  }
+
+  @Test
+  public void resetEmptiesThePrefix() {
+    DictionaryTree tree = new DictionaryTree();
+    tree.insert("dog", 1);
+    tree.insert("cat", 2);
+    PredictionSession unit = new PredictionSession(tree);
+    unit.type("do");
+    assertEquals(Optional.of("dog"), unit.predict());
+    unit.reset();
+    assertEquals("", unit.prefix());
+    assertEquals(Arrays.asList("cat", "dog"), unit.predict(5));
+  }
+
+  @Test
+  public void sessionNoticesRemovedPrefixes() {
+    DictionaryTree tree = new DictionaryTree();
+    tree.insert("cats", 2);
+    tree.insert("car", 1);
+    PredictionSession unit = new PredictionSession(tree);
+    unit.type("cat");
+    assertEquals(Optional.of("cats"), unit.predict());
+
+    // The node of "cat" is still in the removed subtree of "ca"
+    tree.removePrefix("ca");
+    assertEquals(Optional.empty(), unit.predict());
+    tree.insert("catalog", 5);
+    assertEquals(Optional.of("catalog"), unit.predict());
+  }
+}
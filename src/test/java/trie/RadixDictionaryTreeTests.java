@@ -0,0 +1,119 @@
+package trie;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+public class RadixDictionaryTreeTests {
+
+  @Test
+  public void treeContainsWordAferInsertion() {
+    RadixDictionaryTree unit = new RadixDictionaryTree();
+    unit.insert("example");
+    Assertions.assertTrue(unit.contains("example"));
+    Assertions.assertFalse(unit.contains("exam"));
+    Assertions.assertFalse(unit.contains("examples"));
+  }
+
+  @Test
+  public void singleWordIsOneEdge() {
+    RadixDictionaryTree unit = new RadixDictionaryTree();
+    unit.insert("word");
+    assertEquals(5, unit.size());
+    assertEquals(2, unit.physicalSize());
+    assertEquals(4, unit.height());
+    assertEquals(1, unit.numLeaves());
+    assertEquals(1, unit.maximumBranching());
+  }
+
+  @Test
+  public void insertSplitsEdgesWhereWordsDiffer() {
+    RadixDictionaryTree unit = new RadixDictionaryTree();
+    unit.insert("information");
+    unit.insert("info");
+    unit.insert("inform");
+    unit.insert("infant");
+    Assertions.assertTrue(unit.contains("info"));
+    Assertions.assertTrue(unit.contains("inform"));
+    Assertions.assertTrue(unit.contains("information"));
+    Assertions.assertTrue(unit.contains("infant"));
+    Assertions.assertFalse(unit.contains("inf"));
+    // root, "inf", "o", "rm", "ation" and "ant"
+    assertEquals(6, unit.physicalSize());
+    assertEquals(15, unit.size());
+  }
+
+  @Test
+  public void removeMergesEdgesBackTogether() {
+    RadixDictionaryTree unit = new RadixDictionaryTree();
+    unit.insert("info");
+    unit.insert("information");
+    unit.insert("infant");
+    Assertions.assertTrue(unit.remove("info"));
+    Assertions.assertTrue(unit.remove("infant"));
+    Assertions.assertFalse(unit.remove("infant"));
+    Assertions.assertTrue(unit.contains("information"));
+    assertEquals(2, unit.physicalSize());
+    assertEquals(12, unit.size());
+    Assertions.assertTrue(unit.remove("information"));
+    assertEquals(1, unit.size());
+    assertEquals(1, unit.numLeaves());
+  }
+
+  @Test
+  public void predictWithPopularityReturnsObjectsAccordingToPopularity() {
+    RadixDictionaryTree unit = new RadixDictionaryTree();
+    unit.insert("phone", 484);
+    unit.insert("photo", 247);
+    unit.insert("pile", 37);
+    unit.insert("test");
+    unit.insert("phones", 8);
+    unit.insert("physical", 4);
+    unit.insert("photos", 90);
+
+    List<String> correctList = new ArrayList<String>();
+    correctList.add("phone");
+    correctList.add("photo");
+    correctList.add("photos");
+    correctList.add("phones");
+    correctList.add("physical");
+
+    assertEquals(correctList, unit.predict("ph", 10));
+    // A prefix ending part of the way along an edge
+    assertEquals(Optional.of("physical"), unit.predict("physi"));
+    assertEquals(Optional.empty(), unit.predict("physix"));
+  }
+
+  @Test
+  public void radixTreeBehavesTheSameAsDictionaryTree() throws IOException {
+    DictionaryTree tree = CLI.loadWords(new File("word-popularity.txt"));
+    RadixDictionaryTree unit = new RadixDictionaryTree();
+    List<String> words = tree.allWords();
+    for (String word : words) {
+      unit.insert(word, tree.popularity(word));
+    }
+    // Remove every third word from both
+    for (int i = 0; i < words.size(); i += 3) {
+      Assertions.assertEquals(tree.remove(words.get(i)), unit.remove(words.get(i)));
+    }
+
+    assertEquals(tree.size(), unit.size());
+    assertEquals(tree.height(), unit.height());
+    assertEquals(tree.numLeaves(), unit.numLeaves());
+    assertEquals(tree.maximumBranching(), unit.maximumBranching());
+    assertEquals(tree.longestWord(), unit.longestWord());
+    assertEquals(tree.allWords(), unit.allWords());
+    Assertions.assertTrue(unit.physicalSize() < tree.size());
+
+    String[] prefixes = {"", "a", "th", "co", "qu", "zz", "the", "abo", "informat"};
+    for (String prefix : prefixes) {
+      assertEquals(tree.predict(prefix, 5), unit.predict(prefix, 5));
+      assertEquals(tree.predict(prefix, 50), unit.predict(prefix, 50));
+    }
+  }
+}